@@ -0,0 +1,160 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.Multimap;
+import hudson.model.Run;
+import hudson.model.User;
+import hudson.scm.ChangeLogSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deduplication of changes over synthetic change sets,
+ * where a part of the changes shows up in several change sets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangeDeduplicationBenchmark {
+
+    @Param({"10", "100"})
+    public int changeSets;
+
+    @Param({"10", "100"})
+    public int changesPerSet;
+
+    /**
+     * Percentage of the changes of a change set which also appear in the previous change set.
+     */
+    @Param({"0", "50"})
+    public int overlap;
+
+    private List<ChangeLogSet<SyntheticEntry>> sets;
+
+    @Setup
+    public void createChangeSets() {
+        sets = new ArrayList<ChangeLogSet<SyntheticEntry>>(changeSets);
+        int shared = changesPerSet * overlap / 100;
+        int change = 0;
+        for (int set = 0; set < changeSets; set++) {
+            List<SyntheticEntry> entries = new ArrayList<SyntheticEntry>(changesPerSet);
+            int first = Math.max(0, change - shared);
+            for (int i = 0; i < changesPerSet; i++) {
+                int id = first + i;
+                entries.add(new SyntheticEntry("commit" + id, "Fix JENKINS-" + id + " in the synthetic benchmark", 1000L * id));
+            }
+            change = first + changesPerSet;
+            sets.add(new SyntheticChangeLogSet(entries));
+        }
+    }
+
+    @Benchmark
+    public Multimap<ChangeLogSet.Entry, Run> deduplicate() {
+        return ContributingBuilds.deduplicate(sets, Run.class);
+    }
+
+    static class SyntheticChangeLogSet extends ChangeLogSet<SyntheticEntry> {
+        private final List<SyntheticEntry> entries;
+
+        SyntheticChangeLogSet(List<SyntheticEntry> entries) {
+            super(null, null);
+            this.entries = entries;
+            for (SyntheticEntry entry : entries) {
+                entry.setParent(this);
+            }
+        }
+
+        @Override
+        public boolean isEmptySet() {
+            return entries.isEmpty();
+        }
+
+        public Iterator<SyntheticEntry> iterator() {
+            return entries.iterator();
+        }
+    }
+
+    static class SyntheticEntry extends ChangeLogSet.Entry {
+        private final String commitId;
+        private final String msg;
+        private final long timestamp;
+
+        SyntheticEntry(String commitId, String msg, long timestamp) {
+            this.commitId = commitId;
+            this.msg = msg;
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        protected void setParent(ChangeLogSet parent) {
+            super.setParent(parent);
+        }
+
+        @Override
+        public String getCommitId() {
+            return commitId;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String getMsg() {
+            return msg;
+        }
+
+        @Override
+        public User getAuthor() {
+            return null;
+        }
+
+        @Override
+        public Collection<String> getAffectedPaths() {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ClosureWalker} on synthetic build graphs.
+ * Builds are plain integers, so only the walk itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClosureWalkerBenchmark {
+
+    public enum Shape {
+        /** Every build depends on the next one. */
+        CHAIN,
+        /** Layers of two builds, each build depending on both builds of the next layer. */
+        DIAMOND,
+        /** The root depends on all other builds. */
+        FAN_OUT,
+        /** A chain where the last build depends on the root again. */
+        CYCLE
+    }
+
+    @Param({"CHAIN", "DIAMOND", "FAN_OUT", "CYCLE"})
+    public Shape shape;
+
+    @Param({"10", "200", "2000"})
+    public int builds;
+
+    private ClosureWalker.Expander<Integer> graph;
+
+    @Setup
+    public void createGraph() {
+        final List<List<Integer>> edges = new ArrayList<List<Integer>>(builds);
+        for (int build = 0; build < builds; build++) {
+            edges.add(new ArrayList<Integer>());
+        }
+        for (int build = 0; build < builds; build++) {
+            switch (shape) {
+                case CHAIN:
+                    if (build + 1 < builds) {
+                        edges.get(build).add(build + 1);
+                    }
+                    break;
+                case DIAMOND:
+                    int next = build % 2 == 0 ? build + 2 : build + 1;
+                    for (int target = next; target < next + 2 && target < builds; target++) {
+                        edges.get(build).add(target);
+                    }
+                    break;
+                case FAN_OUT:
+                    if (build > 0) {
+                        edges.get(0).add(build);
+                    }
+                    break;
+                case CYCLE:
+                    edges.get(build).add((build + 1) % builds);
+                    break;
+                default:
+                    throw new IllegalStateException(shape.name());
+            }
+        }
+        graph = new ClosureWalker.Expander<Integer>() {
+            public Collection<Integer> expand(Integer build) {
+                return edges.get(build);
+            }
+        };
+    }
+
+    @Benchmark
+    public BuildClosure<Integer> closure() {
+        return new ClosureWalker<Integer>(graph, 0, 0).walk(0);
+    }
+}
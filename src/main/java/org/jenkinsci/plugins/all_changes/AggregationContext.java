@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import hudson.model.Run;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers the results of the {@link ChangesAggregator}s while a page is rendered.
+ * <p>
+ * Consecutive builds of a job usually share most of their upstream and sub-builds,
+ * so passing one context to the calculation of all builds on a page expands each of these builds only once.
+ * A context is meant to live for a single request; it holds on to the builds it has seen.
+ */
+public final class AggregationContext {
+
+    private final ConcurrentMap<Run<?, ?>, List<Run>> aggregated = Maps.newConcurrentMap();
+    private final AtomicInteger hits = new AtomicInteger();
+
+    /**
+     * @return the builds found by all aggregators for the build, calculated at most once per context
+     */
+    List<Run> aggregate(Run<?, ?> build, List<ChangesAggregator> aggregators) {
+        List<Run> found = aggregated.get(build);
+        if (found != null) {
+            hits.incrementAndGet();
+            AggregationMetrics.cache("aggregationContext", true);
+            return found;
+        }
+        AggregationMetrics.cache("aggregationContext", false);
+        AggregationMetrics.count("builds.expanded", 1);
+        ImmutableList.Builder<Run> builder = ImmutableList.builder();
+        for (ChangesAggregator aggregator : aggregators) {
+            long start = System.nanoTime();
+            builder.addAll(aggregator.aggregateRunsWithChanges(build));
+            AggregationMetrics.time("aggregator." + aggregator.getClass().getSimpleName(), start);
+        }
+        found = builder.build();
+        aggregated.put(build, found);
+        return found;
+    }
+
+    /**
+     * @return how often the aggregators did not have to run because the result was already known
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of builds the aggregators ran for
+     */
+    public int getSize() {
+        return aggregated.size();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pool used to run the {@link ChangesAggregator}s for several builds at once.
+ * The {@link ChangesLoader} uses a pool of its own, so loading changes never waits for aggregation threads.
+ * <p>
+ * Tasks run with the security context of the thread submitting them,
+ * so aggregators see the same builds as the user requesting the changes.
+ */
+final class AggregationExecutor extends ThreadPoolExecutor {
+
+    /**
+     * Number of builds expanded in parallel, 1 to run the aggregators on the request thread.
+     */
+    public static int PARALLELISM = Integer.getInteger(AggregationExecutor.class.getName() + ".parallelism", 1);
+    /**
+     * Maximal time in milliseconds for calculating the changes of one build, 0 for no limit.
+     * The time covers the whole walk over the contributing builds together with loading their changes,
+     * so a slow walk leaves less time for loading. For a range of builds it covers the walk and loading for the whole range.
+     */
+    public static long TIMEOUT = Long.getLong(AggregationExecutor.class.getName() + ".timeout", 0);
+
+    private static AggregationExecutor instance;
+
+    AggregationExecutor(int threads, String name) {
+        super(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new NamingThreadFactory(new DaemonThreadFactory(), name));
+        allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * @return the shared executor, or null if aggregators should not run in parallel
+     */
+    static synchronized ExecutorService get() {
+        int parallelism = PARALLELISM;
+        if (parallelism <= 1) {
+            return null;
+        }
+        if (instance == null) {
+            instance = new AggregationExecutor(parallelism, "AllChanges.aggregation");
+        } else {
+            instance.resize(parallelism);
+        }
+        return instance;
+    }
+
+    /**
+     * Changes the number of threads without shutting down the pool, so walks still using it keep running.
+     * Surplus threads end once they are idle.
+     */
+    void resize(int threads) {
+        if (threads > getMaximumPoolSize()) {
+            setMaximumPoolSize(threads);
+            setCorePoolSize(threads);
+        } else if (threads < getMaximumPoolSize()) {
+            setCorePoolSize(threads);
+            setMaximumPoolSize(threads);
+        }
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return super.newTaskFor(new ContextCallable<T>(SecurityContextHolder.getContext(), callable));
+    }
+
+    private static class ContextCallable<T> implements Callable<T> {
+        private final SecurityContext context;
+        private final Callable<T> delegate;
+
+        ContextCallable(SecurityContext context, Callable<T> delegate) {
+            this.context = context;
+            this.delegate = delegate;
+        }
+
+        public T call() throws Exception {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            SecurityContextHolder.setContext(context);
+            try {
+                return delegate.call();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+        }
+    }
+}
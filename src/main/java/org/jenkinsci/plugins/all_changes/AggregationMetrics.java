@@ -0,0 +1,338 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.Maps;
+import hudson.Plugin;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Job;
+import jenkins.model.Jenkins;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Timings, sizes and counters of the calculation of all changes.
+ * <p>
+ * Values are kept in memory and exposed as the MXBean {@value #OBJECT_NAME}.
+ * If the metrics plugin is installed, they are also reported to its registry under {@code all-changes.*},
+ * which adds percentiles, e.g. of the time needed for a page of a job.
+ * <p>
+ * Names used:
+ * <ul>
+ * <li>{@code aggregator.<class>} - time spent in an aggregator for one build</li>
+ * <li>{@code closure} - time and {@code closure.size} - number of builds of walking the contributing builds</li>
+ * <li>{@code changelog} - time for loading the change sets of a build</li>
+ * <li>{@code annotation} - time for annotating a change message</li>
+ * <li>{@code page} - time for calculating a page of changes of a job, and {@code page.<job>} for each of the
+ * {@link #JOBS} jobs whose pages were shown last</li>
+ * <li>{@code load} - time for loading the changes of a build in the background</li>
+ * <li>{@code view} - time and {@code view.jobs} / {@code view.builds} - number of jobs and builds of merging the changes
+ * of a view, {@code view.page} - time for the changes of a view including waiting for the same request of other users</li>
+ * <li>{@code downstream.scan} - time for scanning the jobs for the downstream builds of a build,
+ * {@code downstream.rebuild} - time for rebuilding the index of downstream builds when Jenkins starts</li>
+ * <li>{@code index.prune} - time for removing deleted builds from the index of builds containing a commit</li>
+ * <li>{@code builds.expanded} - number of builds the aggregators ran for</li>
+ * <li>{@code cache.<name>.hits} and {@code cache.<name>.misses} - cache hit rates</li>
+ * </ul>
+ * Apart from {@code page.<job>}, names never contain job or view names. The timings of a job are dropped when the pages
+ * of {@link #JOBS} other jobs have been shown since, so the number of metrics does not grow with the jobs of the instance.
+ */
+public final class AggregationMetrics {
+
+    public static final String OBJECT_NAME = "org.jenkinsci.plugins.all_changes:type=AggregationMetrics";
+
+    private static final Logger LOGGER = Logger.getLogger(AggregationMetrics.class.getName());
+
+    /**
+     * Number of jobs whose page timings are recorded apart, the jobs shown least recently are dropped first.
+     */
+    public static int JOBS = Integer.getInteger(AggregationMetrics.class.getName() + ".jobs", 50);
+
+    /**
+     * Number of recent timings of a job the percentiles are calculated from.
+     */
+    static final int SAMPLES = 128;
+
+    private static final ConcurrentMap<String, Stats> STATS = Maps.newConcurrentMap();
+    private static final ConcurrentMap<String, AtomicLong> COUNTERS = Maps.newConcurrentMap();
+
+    /**
+     * Recent timings by metric name including the job, least recently recorded first, guarded by itself.
+     */
+    private static final LinkedHashMap<String, Samples> JOB_TIMINGS = new LinkedHashMap<String, Samples>(16, 0.75f, true);
+
+    private static volatile Boolean metricsInstalled;
+
+    private AggregationMetrics() {
+    }
+
+    /**
+     * Records the time since start, as returned by {@link System#nanoTime()}.
+     */
+    static void time(String name, long start) {
+        long nanos = System.nanoTime() - start;
+        stats(name).update(nanos);
+        if (isMetricsInstalled()) {
+            MetricsPluginReporter.time(name, nanos);
+        }
+    }
+
+    /**
+     * Records the time since start, and apart as {@code <name>.<job>} for the {@link #JOBS} jobs recorded last.
+     */
+    static void time(String name, Job<?, ?> job, long start) {
+        long nanos = System.nanoTime() - start;
+        stats(name).update(nanos);
+        boolean report = isMetricsInstalled();
+        if (report) {
+            MetricsPluginReporter.time(name, nanos);
+        }
+        String jobName = name + "." + job.getFullName();
+        synchronized (JOB_TIMINGS) {
+            Samples samples = JOB_TIMINGS.get(jobName);
+            if (samples == null) {
+                samples = new Samples();
+                JOB_TIMINGS.put(jobName, samples);
+            }
+            samples.update(nanos);
+            if (report) {
+                MetricsPluginReporter.time(jobName, nanos);
+            }
+            Iterator<String> leastRecent = JOB_TIMINGS.keySet().iterator();
+            while (JOB_TIMINGS.size() > Math.max(1, JOBS)) {
+                String dropped = leastRecent.next();
+                leastRecent.remove();
+                if (report) {
+                    MetricsPluginReporter.remove(dropped);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a size, e.g. of a closure.
+     */
+    static void size(String name, long value) {
+        stats(name).update(value);
+        if (isMetricsInstalled()) {
+            MetricsPluginReporter.size(name, value);
+        }
+    }
+
+    static void count(String name, long count) {
+        AtomicLong counter = COUNTERS.get(name);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong();
+            counter = COUNTERS.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        counter.addAndGet(count);
+        if (isMetricsInstalled()) {
+            MetricsPluginReporter.count(name, count);
+        }
+    }
+
+    /**
+     * Counts a lookup in the named cache.
+     */
+    static void cache(String name, boolean hit) {
+        count("cache." + name + (hit ? ".hits" : ".misses"), 1);
+    }
+
+    private static Stats stats(String name) {
+        Stats stats = STATS.get(name);
+        if (stats == null) {
+            Stats created = new Stats();
+            stats = STATS.putIfAbsent(name, created);
+            if (stats == null) {
+                stats = created;
+            }
+        }
+        return stats;
+    }
+
+    private static boolean isMetricsInstalled() {
+        Boolean installed = metricsInstalled;
+        if (installed == null) {
+            Jenkins jenkins = Jenkins.getInstance();
+            if (jenkins == null) {
+                return false;
+            }
+            Plugin metrics = jenkins.getPlugin("metrics");
+            installed = metrics != null;
+            metricsInstalled = installed;
+        }
+        return installed;
+    }
+
+    public static Map<String, Stats> getStats() {
+        return ImmutableSortedMap.copyOf(STATS);
+    }
+
+    public static Map<String, Long> getCounters() {
+        ImmutableSortedMap.Builder<String, Long> counters = ImmutableSortedMap.naturalOrder();
+        for (Map.Entry<String, AtomicLong> counter : COUNTERS.entrySet()) {
+            counters.put(counter.getKey(), counter.getValue().get());
+        }
+        return counters.build();
+    }
+
+    /**
+     * @return the 95th percentile of the recent timings of each job recorded apart, by {@code <name>.<job>}
+     */
+    public static Map<String, Long> getJobPercentiles() {
+        ImmutableSortedMap.Builder<String, Long> percentiles = ImmutableSortedMap.naturalOrder();
+        synchronized (JOB_TIMINGS) {
+            for (Map.Entry<String, Samples> samples : JOB_TIMINGS.entrySet()) {
+                percentiles.put(samples.getKey(), samples.getValue().percentile(0.95));
+            }
+        }
+        return percentiles.build();
+    }
+
+    static void reset() {
+        STATS.clear();
+        COUNTERS.clear();
+        synchronized (JOB_TIMINGS) {
+            JOB_TIMINGS.clear();
+        }
+    }
+
+    @Initializer(after = InitMilestone.PLUGINS_STARTED)
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new MXBean(), name);
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Number, total and maximum of the recorded values, in nanoseconds for timings.
+     */
+    public static final class Stats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void update(long value) {
+            count.incrementAndGet();
+            total.addAndGet(value);
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getTotal() {
+            return total.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public long getMean() {
+            long n = count.get();
+            return n == 0 ? 0 : total.get() / n;
+        }
+    }
+
+    /**
+     * The last {@link #SAMPLES} recorded values, guarded by {@link #JOB_TIMINGS}.
+     */
+    private static final class Samples {
+        private final long[] values = new long[SAMPLES];
+        private int size;
+        private int next;
+
+        void update(long value) {
+            values[next] = value;
+            next = (next + 1) % values.length;
+            size = Math.min(size + 1, values.length);
+        }
+
+        long percentile(double quantile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted[Math.max(0, (int) Math.ceil(quantile * size) - 1)];
+        }
+    }
+
+    public interface AggregationMetricsMXBean {
+        Map<String, Stats> getStats();
+
+        Map<String, Long> getJobPercentiles();
+
+        Map<String, Long> getCounters();
+
+        void reset();
+    }
+
+    private static class MXBean implements AggregationMetricsMXBean {
+        public Map<String, Stats> getStats() {
+            return AggregationMetrics.getStats();
+        }
+
+        public Map<String, Long> getCounters() {
+            return AggregationMetrics.getCounters();
+        }
+
+        public Map<String, Long> getJobPercentiles() {
+            return AggregationMetrics.getJobPercentiles();
+        }
+
+        public void reset() {
+            AggregationMetrics.reset();
+        }
+    }
+}
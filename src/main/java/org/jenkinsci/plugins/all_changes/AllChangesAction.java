@@ -24,18 +24,27 @@
 
 package org.jenkinsci.plugins.all_changes;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.HashMultimap;
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
+import hudson.model.Run;
 import hudson.model.Action;
 import hudson.scm.ChangeLogSet;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * Action to calculate all changes for a build
@@ -45,10 +54,33 @@ import java.util.Set;
  */
 public class AllChangesAction implements Action {
 
+    /**
+     * Maximal number of aggregation rounds when calculating the contributing builds, 0 for no limit.
+     */
+    public static int MAX_DEPTH = Integer.getInteger(AllChangesAction.class.getName() + ".maxDepth", 0);
+    /**
+     * Maximal number of contributing builds of a single build, 0 for no limit.
+     */
+    public static int MAX_BUILDS = Integer.getInteger(AllChangesAction.class.getName() + ".maxBuilds", 0);
+    /**
+     * Maximal number of changes loaded for a single build, 0 for no limit.
+     */
+    public static int MAX_CHANGES = Integer.getInteger(AllChangesAction.class.getName() + ".maxChanges", 0);
+    /**
+     * Number of builds with changes shown on one page, if the number of changes is not limited otherwise.
+     */
+    public static int PAGE_SIZE = Integer.getInteger(AllChangesAction.class.getName() + ".pageSize", 20);
+
     private AbstractProject<?, ?> project;
     private int numChanges = 0;
     transient
     List<ChangesAggregator> aggregators;
+    /**
+     * Whether the first page is remembered for each viewer until the next build completes.
+     *
+     * @see PortletCache
+     */
+    boolean sharedFirstPage;
 
     AllChangesAction(AbstractProject<?, ?> project) {
         this.project = project;
@@ -78,22 +110,154 @@ public class AllChangesAction implements Action {
      * @return
      */
     public Multimap<ChangeLogSet.Entry, AbstractBuild> getAllChanges(AbstractBuild build) {
-        Set<AbstractBuild> builds = getContributingBuilds(build);
-        Multimap<String, ChangeLogSet.Entry> changes = ArrayListMultimap.create();
-        for (AbstractBuild changedBuild : builds) {
-            ChangeLogSet<ChangeLogSet.Entry> changeSet = changedBuild.getChangeSet();
-            for (ChangeLogSet.Entry entry : changeSet) {
-                changes.put(entry.getCommitId() + entry.getMsgAnnotated() + entry.getTimestamp(), entry);
+        return getAllChanges(build, new AggregationContext());
+    }
+
+    /**
+     * Returns all changes which contribute to a build, sharing aggregator results with other builds using the same context.
+     */
+    public Multimap<ChangeLogSet.Entry, AbstractBuild> getAllChanges(final AbstractBuild build, final AggregationContext context) {
+        final ChangesBudget budget = ChangesBudget.of(project);
+        return InFlight.get(InFlight.key("changes", build, budget), new Callable<Multimap<ChangeLogSet.Entry, AbstractBuild>>() {
+            public Multimap<ChangeLogSet.Entry, AbstractBuild> call() {
+                long start = System.nanoTime();
+                return ContributingBuilds.changes(build, getClosure(build, context, budget), AbstractBuild.class, budget, start)
+                        .getChanges();
             }
+        });
+    }
+
+    /**
+     * Returns the {@link ChangeRecord}s of all changes which contribute to a build,
+     * and whether they have been truncated to stay within the budget.
+     * Only the records are known, so {@link ChangesPage.BuildChanges#getChanges()} is null.
+     * The records are read from the {@link ChangeSidecar}s of the builds where possible.
+     * Concurrent callers asking for the changes of the same build share one calculation.
+     *
+     * @see ChangesBudget
+     */
+    public ChangesPage.BuildChanges<AbstractBuild> getBuildChanges(final AbstractBuild build, final AggregationContext context) {
+        final ChangesBudget budget = ChangesBudget.of(project);
+        return InFlight.get(InFlight.key("records", build, budget), new Callable<ChangesPage.BuildChanges<AbstractBuild>>() {
+            public ChangesPage.BuildChanges<AbstractBuild> call() {
+                long start = System.nanoTime();
+                return ContributingBuilds.records(build, getClosure(build, context, budget), budget, start);
+            }
+        });
+    }
+
+    /**
+     * Returns the newest builds with changes, starting at the build with the given number.
+     *
+     * @param cursor the build number to start at, null for the last build
+     * @param limit  maximal number of builds with changes, 0 for no limit
+     */
+    public ChangesPage<AbstractBuild> getChangesPage(Integer cursor, final int limit) {
+        long start = System.nanoTime();
+        ChangesPage<AbstractBuild> page;
+        if (sharedFirstPage && cursor == null) {
+            page = PortletCache.get(project, limit, AbstractBuild.class, new Supplier<ChangesPage<AbstractBuild>>() {
+                public ChangesPage<AbstractBuild> get() {
+                    return collectChangesPage(null, limit);
+                }
+            });
+        } else {
+            page = collectChangesPage(cursor, limit);
         }
-        Multimap<ChangeLogSet.Entry, AbstractBuild> change2Build = HashMultimap.create();
-        for (String changeKey : changes.keySet()) {
-            ChangeLogSet.Entry change = changes.get(changeKey).iterator().next();
-            for (ChangeLogSet.Entry entry : changes.get(changeKey)) {
-                change2Build.put(change, entry.getParent().build);
+        AggregationMetrics.time("page", project, start);
+        return page;
+    }
+
+    private ChangesPage<AbstractBuild> collectChangesPage(Integer cursor, final int limit) {
+        final AbstractBuild first = cursor == null ? project.getLastBuild() : project.getNearestOldBuild(cursor);
+        String key = first == null ? null : InFlight.key("page " + limit, first, ChangesBudget.of(project));
+        return InFlight.get(key, new Callable<ChangesPage<AbstractBuild>>() {
+            public ChangesPage<AbstractBuild> call() {
+                final AggregationContext context = new AggregationContext();
+                if (ChangesLoader.ENABLED) {
+                    final Function<AbstractBuild, ChangesPage.BuildChanges<AbstractBuild>> allChanges = buildChanges(context);
+                    return ChangesPage.collect(first, limit, new Function<AbstractBuild, ChangesPage.BuildChanges<AbstractBuild>>() {
+                        public ChangesPage.BuildChanges<AbstractBuild> apply(AbstractBuild build) {
+                            return ChangesLoader.poll(build, allChanges);
+                        }
+                    });
+                }
+                return ChangesPage.collect(first, limit, buildChanges(context));
             }
+        });
+    }
+
+    /**
+     * Streams the changes as JSON lines, see {@link ChangesStream} for the format and parameters.
+     * Without a limit parameter, as many builds with changes as on one page are written.
+     */
+    public void doChanges(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        ChangesStream.serve(req, rsp, project, getPageSize(), AbstractBuild.class, buildChanges(new AggregationContext()));
+    }
+
+    /**
+     * Returns the changes of all builds from one build to another as one deduplicated set.
+     * The contributing builds of the whole range are walked once, and the budget of the job applies to the whole range.
+     *
+     * @param from the oldest build of the range
+     * @param to   the newest build of the range
+     */
+    public RangeChanges<AbstractBuild> getRangeChanges(AbstractBuild from, AbstractBuild to) {
+        int oldest = Math.min(from.getNumber(), to.getNumber());
+        int newest = Math.max(from.getNumber(), to.getNumber());
+        return getRangeChanges(ChangesStream.builds(project, String.valueOf(oldest), String.valueOf(newest)));
+    }
+
+    private RangeChanges<AbstractBuild> getRangeChanges(Iterator<Run> builds) {
+        if (aggregators == null) {
+            aggregators = ImmutableList.copyOf(ChangesAggregator.all());
         }
-        return change2Build;
+        List<AbstractBuild> range = Lists.newArrayList(Iterators.filter(builds, AbstractBuild.class));
+        return ContributingBuilds.range(range, aggregators, AbstractBuild.class, new AggregationContext(), ChangesBudget.of(project));
+    }
+
+    /**
+     * Streams the changes of a range of builds as one deduplicated set of JSON lines,
+     * see {@link ChangesStream#serveRange} for the format and parameters.
+     */
+    public void doRange(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        ChangesStream.serveRange(req, rsp, project, new Function<Iterator<Run>, RangeChanges<AbstractBuild>>() {
+            public RangeChanges<AbstractBuild> apply(Iterator<Run> builds) {
+                return getRangeChanges(builds);
+            }
+        });
+    }
+
+    /**
+     * Renders the changes of a single build once they have been loaded in the background.
+     *
+     * @see ChangesLoader
+     */
+    public void doBuildChanges(StaplerRequest req, StaplerResponse rsp, @QueryParameter int number)
+            throws IOException, ServletException {
+        ChangesLoader.serve(req, rsp, this, project.getBuildByNumber(number), buildChanges(new AggregationContext()));
+    }
+
+    private Function<AbstractBuild, ChangesPage.BuildChanges<AbstractBuild>> buildChanges(final AggregationContext context) {
+        return new Function<AbstractBuild, ChangesPage.BuildChanges<AbstractBuild>>() {
+            public ChangesPage.BuildChanges<AbstractBuild> apply(AbstractBuild build) {
+                return getBuildChanges(build, context);
+            }
+        };
+    }
+
+    /**
+     * @return the number of builds with changes shown on one page
+     */
+    public int getPageSize() {
+        return numChanges > 0 ? numChanges : PAGE_SIZE;
+    }
+
+    /**
+     * @return the annotated message of a change, shared between all pages showing the change
+     */
+    public String getAnnotatedMessage(ChangeLogSet.Entry entry) {
+        return AnnotatedMessageCache.get(entry);
     }
 
     /**
@@ -102,24 +266,33 @@ public class AllChangesAction implements Action {
      * @return all changes which contribute to the given build
      */
     public Set<AbstractBuild> getContributingBuilds(AbstractBuild build) {
+        return getClosure(build).getBuilds();
+    }
+
+    /**
+     * Calculates the contributing builds together with some statistics about the walk.
+     * Recorded and cached closures are reused, so they report no expansions.
+     * Only the builds the current user can read are returned.
+     *
+     * @see #MAX_DEPTH
+     * @see ChangesBudget
+     */
+    public BuildClosure<AbstractBuild> getClosure(AbstractBuild build) {
+        return getClosure(build, new AggregationContext());
+    }
+
+    /**
+     * Calculates the contributing builds, sharing aggregator results with other builds using the same context.
+     */
+    public BuildClosure<AbstractBuild> getClosure(AbstractBuild build, AggregationContext context) {
+        return getClosure(build, context, ChangesBudget.of(project));
+    }
+
+    private BuildClosure<AbstractBuild> getClosure(AbstractBuild build, AggregationContext context, ChangesBudget budget) {
         if (aggregators == null) {
             aggregators = ImmutableList.copyOf(ChangesAggregator.all());
         }
-        Set<AbstractBuild> builds = Sets.newHashSet();
-        builds.add(build);
-        int size = 0;
-        // Saturate the build Set
-        do {
-            size = builds.size();
-            Set<AbstractBuild> newBuilds = Sets.newHashSet();
-            for (ChangesAggregator aggregator : aggregators) {
-                for (AbstractBuild depBuild : builds) {
-                    newBuilds.addAll(aggregator.aggregateBuildsWithChanges(depBuild));
-                }
-            }
-            builds.addAll(newBuilds);
-        } while (size < builds.size());
-        return builds;
+        return ContributingBuilds.closure(build, aggregators, AbstractBuild.class, context, budget);
     }
 
     public AbstractProject<?, ?> getProject() {
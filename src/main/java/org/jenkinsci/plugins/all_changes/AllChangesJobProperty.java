@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.JobProperty;
+import hudson.model.JobPropertyDescriptor;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+/**
+ * Limits the work done for calculating the changes of the builds of a job.
+ * <p>
+ * The limits apply in addition to the global ones, 0 means that only the global limit applies.
+ *
+ * @see ChangesBudget
+ */
+public class AllChangesJobProperty extends JobProperty<Job<?, ?>> {
+
+    private final int maxBuilds;
+    private final int maxChanges;
+    private final long timeout;
+
+    @DataBoundConstructor
+    public AllChangesJobProperty(int maxBuilds, int maxChanges, long timeout) {
+        this.maxBuilds = maxBuilds;
+        this.maxChanges = maxChanges;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @return the maximal number of contributing builds of a build, 0 for the global limit
+     */
+    public int getMaxBuilds() {
+        return maxBuilds;
+    }
+
+    /**
+     * @return the maximal number of changes loaded for a build, 0 for the global limit
+     */
+    public int getMaxChanges() {
+        return maxChanges;
+    }
+
+    /**
+     * @return the maximal time in milliseconds for walking the contributing builds and loading the changes of a build
+     *         or range together, 0 for the global limit
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    @Extension
+    public static class DescriptorImpl extends JobPropertyDescriptor {
+
+        @Override
+        public String getDisplayName() {
+            return Messages.AllChangesJobProperty_displayName();
+        }
+    }
+}
@@ -33,6 +33,7 @@ import hudson.Extension;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.Descriptor;
+import hudson.model.Job;
 import hudson.plugins.view.dashboard.DashboardPortlet;
 import hudson.scm.ChangeLogSet;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
@@ -51,6 +52,7 @@ public class AllChangesPortlet extends DashboardPortlet {
 
     private final String jenkinsJobName;
     private final int numChanges;
+    private transient volatile ProjectAction projectAction;
 
     @DataBoundConstructor
     public AllChangesPortlet(String name, String jenkinsJobName, int numChanges) {
@@ -71,23 +73,42 @@ public class AllChangesPortlet extends DashboardPortlet {
         return numChanges;
     }
 
+    /**
+     * @return the action showing the changes of the job, shared between all renders until the job is replaced
+     */
     public Object getProjectAction() {
-        return resolveProject(jenkinsJobName);
+        Job<?, ?> job = Util.getInstance().getItem(jenkinsJobName, Util.getInstance(), Job.class);
+        ProjectAction current = projectAction;
+        if (current == null || current.job != job) {
+            current = new ProjectAction(job, createAction(job));
+            projectAction = current;
+        }
+        return current.action;
     }
 
-    private Object resolveProject(String name) {
-        Object project = Util.getInstance().getItem(name, Util.getInstance(), AbstractProject.class);
-        if (project == null) {
-            project = Util.getInstance().getItem(name, Util.getInstance(), WorkflowJob.class);
-        }
-        if (project instanceof AbstractProject) {
-            return new AllChangesAction((AbstractProject) project, this.numChanges);
-        } else if (project instanceof WorkflowJob) {
-            return new AllChangesWorkflowAction((WorkflowJob) project, this.numChanges);
+    private Object createAction(Job<?, ?> job) {
+        if (job instanceof AbstractProject) {
+            AllChangesAction action = new AllChangesAction((AbstractProject) job, this.numChanges);
+            action.sharedFirstPage = true;
+            return action;
+        } else if (job instanceof WorkflowJob) {
+            AllChangesWorkflowAction action = new AllChangesWorkflowAction((WorkflowJob) job, this.numChanges);
+            action.sharedFirstPage = true;
+            return action;
         }
         return null;
     }
 
+    private static class ProjectAction {
+        private final Job<?, ?> job;
+        private final Object action;
+
+        ProjectAction(Job<?, ?> job, Object action) {
+            this.job = job;
+            this.action = action;
+        }
+    }
+
     @Extension
     public static class AllChangesPortletDescriptor extends Descriptor<DashboardPortlet> {
 
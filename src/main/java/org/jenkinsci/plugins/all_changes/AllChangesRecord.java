@@ -0,0 +1,189 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Sets;
+import hudson.Extension;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.scm.ChangeLogSet;
+import hudson.security.ACL;
+import jenkins.model.RunAction2;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Invisible action storing the contributing builds and changes of a build,
+ * so they do not have to be calculated when the changes are shown.
+ *
+ * @see Recorder
+ */
+public class AllChangesRecord implements RunAction2 {
+
+    private static final Logger LOGGER = Logger.getLogger(AllChangesRecord.class.getName());
+
+    private final List<String> builds;
+    private final List<ChangeKey> changes;
+
+    private transient Run<?, ?> run;
+
+    AllChangesRecord(List<String> builds, List<ChangeKey> changes) {
+        this.builds = ImmutableList.copyOf(builds);
+        this.changes = ImmutableList.copyOf(changes);
+    }
+
+    public String getIconFileName() {
+        return null;
+    }
+
+    public String getDisplayName() {
+        return null;
+    }
+
+    public String getUrlName() {
+        return null;
+    }
+
+    public void onAttached(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public void onLoad(Run<?, ?> r) {
+        this.run = r;
+    }
+
+    public Run<?, ?> getRun() {
+        return run;
+    }
+
+    /**
+     * @return externalizable ids of the contributing builds
+     */
+    public List<String> getBuildIds() {
+        return builds == null ? Collections.<String>emptyList() : builds;
+    }
+
+    /**
+     * @return the keys of all deduplicated changes of the contributing builds
+     */
+    public List<ChangeKey> getChangeKeys() {
+        return changes == null ? Collections.<ChangeKey>emptyList() : changes;
+    }
+
+    public boolean hasChanges() {
+        return !getChangeKeys().isEmpty();
+    }
+
+    /**
+     * @return the contributing builds of the given type, or null if one of them does not exist anymore
+     */
+    <B extends Run> Set<B> getContributingBuilds(Class<B> type) {
+        Set<B> contributing = Sets.newLinkedHashSet();
+        for (String id : getBuildIds()) {
+            Run<?, ?> build = Run.fromExternalizableId(id);
+            if (build == null) {
+                return null;
+            }
+            if (type.isInstance(build)) {
+                contributing.add(type.cast(build));
+            }
+        }
+        return contributing;
+    }
+
+    static AllChangesRecord of(Collection<? extends Run> contributing) {
+        ImmutableList.Builder<String> ids = ImmutableList.builder();
+        Set<ChangeKey> keys = Sets.newLinkedHashSet();
+        for (Run<?, ?> build : contributing) {
+            ids.add(Util.getExternalizableId(build));
+            for (ChangeLogSet<? extends ChangeLogSet.Entry> changeSet : Util.getChangeSets(build)) {
+                for (ChangeLogSet.Entry entry : changeSet) {
+                    keys.add(ChangeKey.of(entry));
+                }
+            }
+        }
+        return new AllChangesRecord(ids.build(), ImmutableList.copyOf(keys));
+    }
+
+    /**
+     * Records the contributing builds of every completed build.
+     * Like all closures, they are walked as {@link ACL#SYSTEM} and filtered for each viewer when they are read.
+     * Disabled unless the system property {@code org.jenkinsci.plugins.all_changes.AllChangesRecord.enabled} is set.
+     */
+    @Extension
+    public static class Recorder extends RunListener<Run> {
+
+        public static boolean ENABLED = Boolean.getBoolean(AllChangesRecord.class.getName() + ".enabled");
+
+        @Override
+        public void onCompleted(Run run, TaskListener listener) {
+            if (!ENABLED || run.getAction(AllChangesRecord.class) != null) {
+                return;
+            }
+            BuildClosure<? extends Run> closure;
+            SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+            try {
+                closure = closure(run);
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+            if (closure == null || closure.isTruncated()) {
+                return;
+            }
+            try {
+                run.addAction(of(closure.getBuilds()));
+                run.save();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to record all changes of " + run, e);
+            }
+        }
+
+        /**
+         * @return the closure of the build, or null if builds of its type have no all changes
+         */
+        BuildClosure<? extends Run> closure(Run run) {
+            if (run instanceof AbstractBuild) {
+                AbstractBuild build = (AbstractBuild) run;
+                return new AllChangesAction(build.getProject()).getClosure(build);
+            } else if (run instanceof WorkflowRun) {
+                WorkflowRun workflowRun = (WorkflowRun) run;
+                return new AllChangesWorkflowAction(workflowRun.getParent()).getClosure(workflowRun);
+            }
+            return null;
+        }
+    }
+}
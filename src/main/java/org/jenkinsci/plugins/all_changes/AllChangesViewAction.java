@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.Action;
+import hudson.model.Job;
+import hudson.model.View;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Shows the newest changes of all jobs of a view, or of a folder through its views, in one feed.
+ *
+ * @see ViewChanges
+ */
+public class AllChangesViewAction implements Action {
+
+    private final View view;
+    private final int numChanges;
+
+    AllChangesViewAction(View view) {
+        this(view, 0);
+    }
+
+    AllChangesViewAction(View view, int numChanges) {
+        this.view = view;
+        this.numChanges = numChanges;
+    }
+
+    public String getIconFileName() {
+        return "notepad.png";
+    }
+
+    public String getDisplayName() {
+        return Messages.AllChanges_allChanges();
+    }
+
+    public String getUrlName() {
+        return "all-changes";
+    }
+
+    public View getView() {
+        return view;
+    }
+
+    /**
+     * @return the number of changes shown
+     */
+    public int getNumChanges() {
+        return numChanges > 0 ? numChanges : ViewChanges.LIMIT;
+    }
+
+    /**
+     * Concurrent requests of one user share one calculation.
+     *
+     * @return the newest changes of the jobs of the view
+     */
+    public ViewChanges getChanges() {
+        long start = System.nanoTime();
+        final Set<Job<?, ?>> jobs = ViewChanges.jobs(view);
+        final int limit = getNumChanges();
+        StringBuilder key = new StringBuilder("view ").append(limit);
+        for (Job<?, ?> job : jobs) {
+            key.append(' ').append(job.getFullName());
+        }
+        ViewChanges changes = InFlight.get(InFlight.key(key.toString()), new Callable<ViewChanges>() {
+            public ViewChanges call() {
+                return ViewChanges.of(jobs, limit);
+            }
+        });
+        AggregationMetrics.time("view.page", start);
+        return changes;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.Extension;
+import hudson.model.Descriptor;
+import hudson.plugins.view.dashboard.DashboardPortlet;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+/**
+ * Portlet showing the newest changes of all jobs of the dashboard in one feed,
+ * instead of one {@link AllChangesPortlet} per job.
+ *
+ * @see ViewChanges
+ */
+public class AllChangesViewPortlet extends DashboardPortlet {
+
+    private final int numChanges;
+
+    @DataBoundConstructor
+    public AllChangesViewPortlet(String name, int numChanges) {
+        super(name);
+        this.numChanges = numChanges;
+    }
+
+    public int getNumChanges() {
+        return numChanges;
+    }
+
+    public AllChangesViewAction getViewAction() {
+        return new AllChangesViewAction(getDashboard(), numChanges);
+    }
+
+    @Extension
+    public static class AllChangesViewPortletDescriptor extends Descriptor<DashboardPortlet> {
+
+        @Override
+        public String getDisplayName() {
+            return "All Changes of the View Portlet";
+        }
+    }
+}
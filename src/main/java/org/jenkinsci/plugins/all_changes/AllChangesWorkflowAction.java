@@ -24,22 +24,43 @@
 
 package org.jenkinsci.plugins.all_changes;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.google.common.base.Function;
+import com.google.common.base.Supplier;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import hudson.model.Action;
+import hudson.model.Run;
 import hudson.scm.ChangeLogSet;
 import org.jenkinsci.plugins.workflow.job.WorkflowJob;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
 
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 public class AllChangesWorkflowAction implements Action {
 
     private WorkflowJob project;
     private int numChanges = 0;
+    transient
+    List<ChangesAggregator> aggregators;
+    /**
+     * Whether the first page is remembered for each viewer until the next build completes.
+     *
+     * @see PortletCache
+     */
+    boolean sharedFirstPage;
 
     AllChangesWorkflowAction(WorkflowJob project) {
         this.project = project;
@@ -69,24 +90,167 @@ public class AllChangesWorkflowAction implements Action {
      * @return
      */
     public Multimap<ChangeLogSet.Entry, WorkflowRun> getAllChanges(WorkflowRun build) {
-        Set<WorkflowRun> builds = getContributingBuilds(build);
-        Multimap<String, ChangeLogSet.Entry> changes = ArrayListMultimap.create();
-        for (WorkflowRun changedBuild : builds) {
-            for (ChangeLogSet changeLogSet : changedBuild.getChangeSets()) {
-                ChangeLogSet<ChangeLogSet.Entry> changeSet = (ChangeLogSet<ChangeLogSet.Entry>)changeLogSet;
-                for (ChangeLogSet.Entry entry : changeSet) {
-                    changes.put(entry.getCommitId() + entry.getMsgAnnotated() + entry.getTimestamp(), entry);
-                }
+        Multimap<ChangeLogSet.Entry, WorkflowRun> changes = HashMultimap.create();
+        for (Map.Entry<ChangeLogSet.Entry, Run> change : getAllRunChanges(build).entries()) {
+            if (change.getValue() instanceof WorkflowRun) {
+                changes.put(change.getKey(), (WorkflowRun) change.getValue());
             }
         }
-        Multimap<ChangeLogSet.Entry, WorkflowRun> change2Build = HashMultimap.create();
-        for (String changeKey : changes.keySet()) {
-            ChangeLogSet.Entry change = changes.get(changeKey).iterator().next();
-            for (ChangeLogSet.Entry entry : changes.get(changeKey)) {
-                change2Build.put(change, (WorkflowRun) entry.getParent().getRun());
+        return changes;
+    }
+
+    /**
+     * Same as {@link #getAllChanges(WorkflowRun)}, but also returns the changes of contributing freestyle builds.
+     */
+    public Multimap<ChangeLogSet.Entry, Run> getAllRunChanges(WorkflowRun build) {
+        return getAllRunChanges(build, new AggregationContext());
+    }
+
+    /**
+     * Returns all changes which contribute to a build, sharing aggregator results with other builds using the same context.
+     */
+    public Multimap<ChangeLogSet.Entry, Run> getAllRunChanges(final WorkflowRun build, final AggregationContext context) {
+        final ChangesBudget budget = ChangesBudget.of(project);
+        return InFlight.get(InFlight.key("changes", build, budget), new Callable<Multimap<ChangeLogSet.Entry, Run>>() {
+            public Multimap<ChangeLogSet.Entry, Run> call() {
+                long start = System.nanoTime();
+                return ContributingBuilds.changes((Run) build, getClosure(build, context, budget), Run.class, budget, start)
+                        .getChanges();
+            }
+        });
+    }
+
+    /**
+     * Returns the {@link ChangeRecord}s of all changes which contribute to a build,
+     * and whether they have been truncated to stay within the budget.
+     * Only the records are known, so {@link ChangesPage.BuildChanges#getChanges()} is null.
+     * The records are read from the {@link ChangeSidecar}s of the builds where possible.
+     * Concurrent callers asking for the changes of the same build share one calculation.
+     *
+     * @see ChangesBudget
+     */
+    public ChangesPage.BuildChanges<Run> getBuildChanges(final WorkflowRun build, final AggregationContext context) {
+        final ChangesBudget budget = ChangesBudget.of(project);
+        return InFlight.get(InFlight.key("records", build, budget), new Callable<ChangesPage.BuildChanges<Run>>() {
+            public ChangesPage.BuildChanges<Run> call() {
+                long start = System.nanoTime();
+                return ContributingBuilds.records((Run) build, getClosure(build, context, budget), budget, start);
             }
+        });
+    }
+
+    /**
+     * Returns the newest builds with changes, starting at the build with the given number.
+     *
+     * @param cursor the build number to start at, null for the last build
+     * @param limit  maximal number of builds with changes, 0 for no limit
+     */
+    public ChangesPage<Run> getChangesPage(Integer cursor, final int limit) {
+        long start = System.nanoTime();
+        ChangesPage<Run> page;
+        if (sharedFirstPage && cursor == null) {
+            page = PortletCache.get(project, limit, Run.class, new Supplier<ChangesPage<Run>>() {
+                public ChangesPage<Run> get() {
+                    return collectChangesPage(null, limit);
+                }
+            });
+        } else {
+            page = collectChangesPage(cursor, limit);
+        }
+        AggregationMetrics.time("page", project, start);
+        return page;
+    }
+
+    private ChangesPage<Run> collectChangesPage(Integer cursor, final int limit) {
+        final Run first = cursor == null ? project.getLastBuild() : project.getNearestOldBuild(cursor);
+        String key = first == null ? null : InFlight.key("page " + limit, first, ChangesBudget.of(project));
+        return InFlight.get(key, new Callable<ChangesPage<Run>>() {
+            public ChangesPage<Run> call() {
+                final AggregationContext context = new AggregationContext();
+                if (ChangesLoader.ENABLED) {
+                    final Function<Run, ChangesPage.BuildChanges<Run>> allChanges = buildChanges(context);
+                    return ChangesPage.collect(first, limit, new Function<Run, ChangesPage.BuildChanges<Run>>() {
+                        public ChangesPage.BuildChanges<Run> apply(Run build) {
+                            return ChangesLoader.poll(build, allChanges);
+                        }
+                    });
+                }
+                return ChangesPage.collect(first, limit, buildChanges(context));
+            }
+        });
+    }
+
+    /**
+     * Streams the changes as JSON lines, see {@link ChangesStream} for the format and parameters.
+     * Without a limit parameter, as many builds with changes as on one page are written.
+     */
+    public void doChanges(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        ChangesStream.serve(req, rsp, project, getPageSize(), Run.class, buildChanges(new AggregationContext()));
+    }
+
+    /**
+     * Returns the changes of all builds from one build to another as one deduplicated set.
+     * The contributing builds of the whole range are walked once, and the budget of the job applies to the whole range.
+     *
+     * @param from the oldest build of the range
+     * @param to   the newest build of the range
+     */
+    public RangeChanges<Run> getRangeChanges(WorkflowRun from, WorkflowRun to) {
+        int oldest = Math.min(from.getNumber(), to.getNumber());
+        int newest = Math.max(from.getNumber(), to.getNumber());
+        return getRangeChanges(ChangesStream.builds(project, String.valueOf(oldest), String.valueOf(newest)));
+    }
+
+    private RangeChanges<Run> getRangeChanges(Iterator<Run> builds) {
+        if (aggregators == null) {
+            aggregators = ImmutableList.copyOf(ChangesAggregator.all());
         }
-        return change2Build;
+        List<Run> range = Lists.newArrayList(Iterators.filter(builds, Run.class));
+        return ContributingBuilds.range(range, aggregators, Run.class, new AggregationContext(), ChangesBudget.of(project));
+    }
+
+    /**
+     * Streams the changes of a range of builds as one deduplicated set of JSON lines,
+     * see {@link ChangesStream#serveRange} for the format and parameters.
+     */
+    public void doRange(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        ChangesStream.serveRange(req, rsp, project, new Function<Iterator<Run>, RangeChanges<Run>>() {
+            public RangeChanges<Run> apply(Iterator<Run> builds) {
+                return getRangeChanges(builds);
+            }
+        });
+    }
+
+    /**
+     * Renders the changes of a single build once they have been loaded in the background.
+     *
+     * @see ChangesLoader
+     */
+    public void doBuildChanges(StaplerRequest req, StaplerResponse rsp, @QueryParameter int number)
+            throws IOException, ServletException {
+        ChangesLoader.serve(req, rsp, this, (Run) project.getBuildByNumber(number), buildChanges(new AggregationContext()));
+    }
+
+    private Function<Run, ChangesPage.BuildChanges<Run>> buildChanges(final AggregationContext context) {
+        return new Function<Run, ChangesPage.BuildChanges<Run>>() {
+            public ChangesPage.BuildChanges<Run> apply(Run build) {
+                return getBuildChanges((WorkflowRun) build, context);
+            }
+        };
+    }
+
+    /**
+     * @return the number of builds with changes shown on one page
+     */
+    public int getPageSize() {
+        return numChanges > 0 ? numChanges : AllChangesAction.PAGE_SIZE;
+    }
+
+    /**
+     * @return the annotated message of a change, shared between all pages showing the change
+     */
+    public String getAnnotatedMessage(ChangeLogSet.Entry entry) {
+        return AnnotatedMessageCache.get(entry);
     }
 
     /**
@@ -95,11 +259,45 @@ public class AllChangesWorkflowAction implements Action {
      * @return all changes which contribute to the given build
      */
     public Set<WorkflowRun> getContributingBuilds(WorkflowRun build) {
-        Set<WorkflowRun> builds = Sets.newHashSet();
-        builds.add(build);
+        Set<WorkflowRun> builds = Sets.newLinkedHashSet();
+        for (Run run : getContributingRuns(build)) {
+            if (run instanceof WorkflowRun) {
+                builds.add((WorkflowRun) run);
+            }
+        }
         return builds;
     }
 
+    /**
+     * Same as {@link #getContributingBuilds(WorkflowRun)}, but also returns contributing freestyle builds.
+     */
+    public Set<Run> getContributingRuns(WorkflowRun build) {
+        return getClosure(build).getBuilds();
+    }
+
+    /**
+     * Calculates the contributing builds together with some statistics about the walk.
+     * Contributing builds may be pipeline runs or freestyle builds.
+     * Only the builds the current user can read are returned.
+     */
+    public BuildClosure<Run> getClosure(WorkflowRun build) {
+        return getClosure(build, new AggregationContext());
+    }
+
+    /**
+     * Calculates the contributing builds, sharing aggregator results with other builds using the same context.
+     */
+    public BuildClosure<Run> getClosure(WorkflowRun build, AggregationContext context) {
+        return getClosure(build, context, ChangesBudget.of(project));
+    }
+
+    private BuildClosure<Run> getClosure(WorkflowRun build, AggregationContext context, ChangesBudget budget) {
+        if (aggregators == null) {
+            aggregators = ImmutableList.copyOf(ChangesAggregator.all());
+        }
+        return ContributingBuilds.closure((Run) build, aggregators, Run.class, context, budget);
+    }
+
     public WorkflowJob getProject() {
         return project;
     }
@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import hudson.model.Run;
+import hudson.model.User;
+import hudson.scm.ChangeLogSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the annotated messages of changes, so the {@link hudson.scm.ChangeLogAnnotator}s
+ * run only once per change and build, even if the change is shown for many builds or on many pages.
+ * <p>
+ * Builds are weakly referenced, so the cache never keeps a build in memory.
+ */
+public final class AnnotatedMessageCache {
+
+    /**
+     * Maximal number of builds whose annotated messages are remembered.
+     */
+    public static int SIZE = Integer.getInteger(AnnotatedMessageCache.class.getName() + ".size", 500);
+
+    private static final Cache<Run<?, ?>, ConcurrentMap<ChangeKey, String>> CACHE =
+            CacheBuilder.newBuilder().weakKeys().maximumSize(SIZE).build();
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+
+    private AnnotatedMessageCache() {
+    }
+
+    /**
+     * @return the annotated message of the change
+     * @see ChangeLogSet.Entry#getMsgAnnotated()
+     */
+    public static String get(ChangeLogSet.Entry entry) {
+        Run<?, ?> run = entry.getParent() == null ? null : entry.getParent().getRun();
+        if (run == null) {
+            misses.incrementAndGet();
+            return entry.getMsgAnnotated();
+        }
+        ConcurrentMap<ChangeKey, String> messages = messagesOf(run);
+        ChangeKey key = ChangeKey.of(entry);
+        String annotated = messages.get(key);
+        if (annotated != null) {
+            hits.incrementAndGet();
+            AggregationMetrics.cache("annotatedMessages", true);
+            return annotated;
+        }
+        misses.incrementAndGet();
+        AggregationMetrics.cache("annotatedMessages", false);
+        long start = System.nanoTime();
+        annotated = entry.getMsgAnnotated();
+        AggregationMetrics.time("annotation", start);
+        messages.put(key, annotated);
+        return annotated;
+    }
+
+    /**
+     * Annotates the message of a record for the first of its builds which still exists.
+     * Records do not keep their entry, so the annotators get a copy of the change without its affected paths.
+     *
+     * @return the annotated message of the change, or the escaped message if none of its builds exists anymore
+     */
+    public static String get(ChangeRecord record) {
+        if (record.getMsgAnnotated() != null) {
+            return record.getMsgAnnotated();
+        }
+        Run<?, ?> run = null;
+        for (String id : record.getBuildIds()) {
+            run = Run.fromExternalizableId(id);
+            if (run != null) {
+                break;
+            }
+        }
+        if (run == null) {
+            misses.incrementAndGet();
+            return hudson.Util.escape(record.getMsg());
+        }
+        ConcurrentMap<ChangeKey, String> messages = messagesOf(run);
+        ChangeKey key = record.getKey();
+        String annotated = messages.get(key);
+        if (annotated != null) {
+            hits.incrementAndGet();
+            AggregationMetrics.cache("annotatedMessages", true);
+            return annotated;
+        }
+        misses.incrementAndGet();
+        AggregationMetrics.cache("annotatedMessages", false);
+        long start = System.nanoTime();
+        annotated = new RecordEntry(run, record).getMsgAnnotated();
+        AggregationMetrics.time("annotation", start);
+        messages.put(key, annotated);
+        return annotated;
+    }
+
+    private static ConcurrentMap<ChangeKey, String> messagesOf(Run<?, ?> run) {
+        try {
+            return CACHE.get(run, new Callable<ConcurrentMap<ChangeKey, String>>() {
+                public ConcurrentMap<ChangeKey, String> call() {
+                    return Maps.newConcurrentMap();
+                }
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static long getHits() {
+        return hits.get();
+    }
+
+    public static long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Forgets the annotated messages of a deleted build right away, instead of when it is garbage collected.
+     */
+    static void invalidate(Run<?, ?> run) {
+        CACHE.invalidate(run);
+    }
+
+    static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Entry of a record in an empty change log set of the build, since annotators are given an entry.
+     */
+    private static class RecordEntry extends ChangeLogSet.Entry {
+        private final ChangeRecord record;
+
+        RecordEntry(Run<?, ?> run, ChangeRecord record) {
+            this.record = record;
+            setParent(ChangeLogSet.createEmpty(run));
+        }
+
+        @Override
+        public String getCommitId() {
+            return record.getCommitId();
+        }
+
+        @Override
+        public long getTimestamp() {
+            return record.getTimestamp();
+        }
+
+        @Override
+        public String getMsg() {
+            return record.getMsg();
+        }
+
+        @Override
+        public User getAuthor() {
+            User author = record.getAuthorId() == null ? null
+                    : User.get(record.getAuthorId(), false, Collections.emptyMap());
+            return author == null ? User.getUnknown() : author;
+        }
+
+        @Override
+        public Collection<String> getAffectedPaths() {
+            return Collections.emptyList();
+        }
+    }
+}
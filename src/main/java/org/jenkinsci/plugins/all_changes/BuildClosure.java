@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.util.Set;
+
+/**
+ * Result of walking the contributing builds of a build.
+ *
+ * @param <B> the build type
+ */
+public class BuildClosure<B> {
+
+    private final Set<B> builds;
+    private final int expansions;
+    private final boolean truncated;
+
+    BuildClosure(Set<B> builds, int expansions, boolean truncated) {
+        this.builds = ImmutableSet.copyOf(builds);
+        this.expansions = expansions;
+        this.truncated = truncated;
+    }
+
+    /**
+     * @return the builds in the closure, including the build it was computed for
+     */
+    public Set<B> getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return how many builds have been handed to the aggregators
+     */
+    public int getExpansions() {
+        return expansions;
+    }
+
+    /**
+     * @return true if a depth or size limit stopped the walk before the closure was saturated
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,561 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import hudson.Extension;
+import hudson.model.AbstractBuild;
+import hudson.model.Item;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.RunListener;
+import hudson.security.ACL;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * On-disk index from commit ids to the builds which contain the commit, across all jobs.
+ * <p>
+ * When a build completes, the changes of all its contributing builds are appended to the index,
+ * so a commit is found in the build which recorded it as well as in the builds which picked it up
+ * through sub-projects, dependencies or pipeline triggers.
+ * Each line of the index is {@code commitId TAB buildId TAB recordedInId}.
+ * <p>
+ * The index is split into {@link #SHARDS} files by the first two characters of the commit id,
+ * so a lookup reads a single file and commit ids can be searched by a prefix of at least two characters.
+ * A lookup returns at most {@link #MAX_HITS} builds, so a short prefix matching many commits does not list the whole shard.
+ * A lookup reads the file without a lock, skipping a last line which is still being appended,
+ * so searching does not hold up the indexing of completed builds.
+ * <p>
+ * The index only holds the builds which exist: deleted builds and jobs are removed from it, and the ids of renamed
+ * or moved jobs are rewritten, by {@link #prune}. Deleted builds are collected until {@link #PRUNE_AFTER} of them
+ * are known, deleted or renamed jobs are removed right away.
+ * Builds deleted while Jenkins is not running stay in the index and are skipped when the builds are resolved.
+ * Builds which completed before the index was enabled are not indexed.
+ */
+public final class ChangeIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeIndex.class.getName());
+
+    /**
+     * Whether completed builds are added to the index.
+     */
+    public static boolean ENABLED = !Boolean.getBoolean(ChangeIndex.class.getName() + ".disabled");
+
+    /**
+     * Number of deleted builds after which they are removed from the index.
+     */
+    public static int PRUNE_AFTER = Integer.getInteger(ChangeIndex.class.getName() + ".pruneAfter", 100);
+
+    /**
+     * Maximal number of builds returned by a lookup, the newest are kept.
+     */
+    public static int MAX_HITS = Integer.getInteger(ChangeIndex.class.getName() + ".maxHits", 100);
+
+    static final int SHARDS = 64;
+
+    /**
+     * Held while a shard is appended to or rewritten, but not while it is read.
+     */
+    private static final Object[] LOCKS = new Object[SHARDS];
+
+    static {
+        for (int i = 0; i < SHARDS; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    private static ExecutorService executor;
+
+    /**
+     * The deletions and renames not yet applied to the index, guarded by the class.
+     */
+    private static Pruning pending = new Pruning();
+
+    private static boolean pruneScheduled;
+
+    private ChangeIndex() {
+    }
+
+    static File getDirectory() {
+        return new File(Util.getInstance().getRootDir(), ChangeIndex.class.getName());
+    }
+
+    /**
+     * Appends the changes of the contributing builds of a build to the index.
+     */
+    static void add(Run<?, ?> build, Collection<? extends Run> contributing) throws IOException {
+        String buildId = Util.getExternalizableId(build);
+        if (buildId == null) {
+            return;
+        }
+        Multimap<String, String> commitIds = LinkedHashMultimap.create();
+        for (Run<?, ?> contributingBuild : contributing) {
+            String recordedIn = Util.getExternalizableId(contributingBuild);
+            if (recordedIn == null) {
+                continue;
+            }
+            for (ChangeRecord record : ChangeSidecar.records(contributingBuild)) {
+                commitIds.put(recordedIn, record.getCommitId());
+            }
+        }
+        add(getDirectory(), buildId, commitIds);
+    }
+
+    /**
+     * @param commitIds the commit ids by the id of the contributing build which recorded them
+     */
+    static void add(File directory, String buildId, Multimap<String, String> commitIds) throws IOException {
+        Map<Integer, StringBuilder> lines = Maps.newTreeMap();
+        for (Map.Entry<String, String> commit : commitIds.entries()) {
+            String commitId = commit.getValue();
+            if (!isIndexable(commitId)) {
+                continue;
+            }
+            int shard = shard(commitId);
+            StringBuilder shardLines = lines.get(shard);
+            if (shardLines == null) {
+                shardLines = new StringBuilder();
+                lines.put(shard, shardLines);
+            }
+            shardLines.append(commitId).append('\t').append(buildId).append('\t').append(commit.getKey()).append('\n');
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+        for (Map.Entry<Integer, StringBuilder> shardLines : lines.entrySet()) {
+            int shard = shardLines.getKey();
+            synchronized (LOCKS[shard]) {
+                Writer out = new OutputStreamWriter(new FileOutputStream(file(directory, shard), true), Charsets.UTF_8);
+                try {
+                    out.write(shardLines.getValue().toString());
+                } finally {
+                    out.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * @param commitId the commit id, or a prefix of at least two characters of it
+     * @return the builds containing the commit, newest indexed first
+     */
+    static Lookup lookup(String commitId) throws IOException {
+        return lookup(getDirectory(), commitId, MAX_HITS);
+    }
+
+    /**
+     * @param maxHits the maximal number of builds returned, 0 for no limit
+     */
+    static Lookup lookup(File directory, String commitId, int maxHits) throws IOException {
+        commitId = commitId.trim();
+        if (!isIndexable(commitId)) {
+            return new Lookup(ImmutableList.<Hit>of(), false);
+        }
+        boolean prefix = commitId.length() >= 2;
+        Map<String, Hit> hits = Maps.newLinkedHashMap();
+        boolean truncated = false;
+        Lines in;
+        try {
+            in = new Lines(file(directory, shard(commitId)));
+        } catch (FileNotFoundException e) {
+            return new Lookup(ImmutableList.<Hit>of(), false);
+        }
+        try {
+            String line;
+            while ((line = in.next()) != null) {
+                if (!line.startsWith(commitId)) {
+                    continue;
+                }
+                String[] fields = line.split("\t");
+                if (fields.length != 3 || !(prefix || fields[0].equals(commitId))) {
+                    continue;
+                }
+                String key = fields[0] + '\t' + fields[1];
+                Hit hit = hits.remove(key);
+                if (hit == null) {
+                    hit = new Hit(fields[0], fields[1]);
+                }
+                if (!hit.recordedInIds.contains(fields[2])) {
+                    hit.recordedInIds.add(fields[2]);
+                }
+                hits.put(key, hit);
+                if (maxHits > 0 && hits.size() > maxHits) {
+                    // the shard is in the order the builds completed, so the oldest hit is dropped
+                    Iterator<String> oldest = hits.keySet().iterator();
+                    oldest.next();
+                    oldest.remove();
+                    truncated = true;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        return new Lookup(Lists.reverse(ImmutableList.copyOf(hits.values())), truncated);
+    }
+
+    /**
+     * Rewrites every shard of the index, leaving out the lines of deleted builds and renaming the ids of moved jobs.
+     * Each shard is replaced at once, so lookups running meanwhile read either the old or the new shard.
+     */
+    static void prune(File directory, Pruning pruning) throws IOException {
+        for (int shard = 0; shard < SHARDS; shard++) {
+            File file = file(directory, shard);
+            synchronized (LOCKS[shard]) {
+                Lines in;
+                try {
+                    in = new Lines(file);
+                } catch (FileNotFoundException e) {
+                    continue;
+                }
+                File tmp = new File(directory, file.getName() + ".tmp");
+                try {
+                    Writer out = new OutputStreamWriter(new FileOutputStream(tmp), Charsets.UTF_8);
+                    try {
+                        String line;
+                        while ((line = in.next()) != null) {
+                            String[] fields = line.split("\t");
+                            String buildId = fields.length == 3 ? pruning.rewrite(fields[1]) : null;
+                            if (buildId == null) {
+                                continue;
+                            }
+                            String recordedIn = pruning.rewrite(fields[2]);
+                            out.write(fields[0] + '\t' + buildId + '\t' + (recordedIn == null ? fields[2] : recordedIn) + '\n');
+                        }
+                    } finally {
+                        out.close();
+                    }
+                } finally {
+                    in.close();
+                }
+                if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                    tmp.delete();
+                    throw new IOException("Failed to rename " + tmp + " to " + file);
+                }
+            }
+        }
+    }
+
+    static synchronized void buildDeleted(String buildId) {
+        pending.deletedBuilds.add(buildId);
+        if (pending.deletedBuilds.size() >= PRUNE_AFTER) {
+            schedulePrune();
+        }
+    }
+
+    static synchronized void jobDeleted(String fullName) {
+        pending.jobs.add(new String[] {fullName, null});
+        schedulePrune();
+    }
+
+    static synchronized void jobMoved(String oldFullName, String newFullName) {
+        pending.jobs.add(new String[] {oldFullName, newFullName});
+        schedulePrune();
+    }
+
+    /**
+     * Prunes the index on the indexing thread, after the builds which completed before have been added.
+     */
+    private static synchronized void schedulePrune() {
+        if (pruneScheduled) {
+            return;
+        }
+        pruneScheduled = true;
+        executor().submit(new Runnable() {
+            public void run() {
+                Pruning pruning;
+                synchronized (ChangeIndex.class) {
+                    pruning = pending;
+                    pending = new Pruning();
+                    pruneScheduled = false;
+                }
+                long start = System.nanoTime();
+                try {
+                    prune(getDirectory(), pruning);
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to prune the index of builds containing a commit", e);
+                }
+                AggregationMetrics.time("index.prune", start);
+            }
+        });
+    }
+
+    private static boolean isIndexable(String commitId) {
+        return commitId != null && !commitId.isEmpty() && commitId.indexOf('\t') < 0 && commitId.indexOf('\n') < 0
+                && commitId.indexOf('\r') < 0;
+    }
+
+    /**
+     * @return the shard of a commit id, the same for all commit ids starting with the same two characters
+     */
+    static int shard(String commitId) {
+        return (commitId.substring(0, Math.min(2, commitId.length())).hashCode() & Integer.MAX_VALUE) % SHARDS;
+    }
+
+    private static File file(File directory, int shard) {
+        return new File(directory, String.format("%02d.log", shard));
+    }
+
+    /**
+     * The deleted builds and the deleted or moved jobs to apply to the index.
+     */
+    static final class Pruning {
+        final Set<String> deletedBuilds = Sets.newHashSet();
+
+        /**
+         * Old and new full name of each deleted or moved job in the order of the events, the new name is null if deleted.
+         */
+        final List<String[]> jobs = Lists.newArrayList();
+
+        /**
+         * @return the id of the build after the jobs have been moved, or null if the build or its job has been deleted
+         */
+        String rewrite(String buildId) {
+            if (deletedBuilds.contains(buildId)) {
+                return null;
+            }
+            int hash = buildId.lastIndexOf('#');
+            if (hash < 0) {
+                return buildId;
+            }
+            String job = buildId.substring(0, hash);
+            for (String[] move : jobs) {
+                if (job.equals(move[0]) || job.startsWith(move[0] + '/')) {
+                    if (move[1] == null) {
+                        return null;
+                    }
+                    job = move[1] + job.substring(move[0].length());
+                }
+            }
+            String rewritten = job + buildId.substring(hash);
+            return deletedBuilds.contains(rewritten) ? null : rewritten;
+        }
+    }
+
+    /**
+     * Reads the complete lines of a shard, a last line without line break is still being appended and left out.
+     */
+    private static final class Lines implements Closeable {
+        private final BufferedReader in;
+        private final StringBuilder line = new StringBuilder();
+
+        Lines(File file) throws FileNotFoundException {
+            in = new BufferedReader(new InputStreamReader(new FileInputStream(file), Charsets.UTF_8));
+        }
+
+        String next() throws IOException {
+            int c;
+            while ((c = in.read()) >= 0) {
+                if (c == '\n') {
+                    String complete = line.toString();
+                    line.setLength(0);
+                    return complete;
+                }
+                line.append((char) c);
+            }
+            return null;
+        }
+
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = new AggregationExecutor(1, "AllChanges.index");
+        }
+        return executor;
+    }
+
+    /**
+     * The builds found for a commit id.
+     */
+    public static final class Lookup {
+        private final List<Hit> hits;
+        private final boolean truncated;
+
+        Lookup(List<Hit> hits, boolean truncated) {
+            this.hits = hits;
+            this.truncated = truncated;
+        }
+
+        /**
+         * @return the builds containing the commit, newest indexed first
+         */
+        public List<Hit> getHits() {
+            return hits;
+        }
+
+        /**
+         * @return whether more than {@link #MAX_HITS} builds contain the commit and only the newest are returned
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    /**
+     * A build containing a commit.
+     */
+    public static final class Hit {
+        private final String commitId;
+        private final String buildId;
+        private final List<String> recordedInIds = Lists.newArrayList();
+
+        Hit(String commitId, String buildId) {
+            this.commitId = commitId;
+            this.buildId = buildId;
+        }
+
+        public String getCommitId() {
+            return commitId;
+        }
+
+        public String getBuildId() {
+            return buildId;
+        }
+
+        /**
+         * @return the build, or null if it does not exist anymore or cannot be seen by the current user
+         */
+        public Run<?, ?> getBuild() {
+            return Run.fromExternalizableId(buildId);
+        }
+
+        /**
+         * @return ids of the contributing builds which recorded the commit
+         */
+        public List<String> getRecordedInIds() {
+            return recordedInIds;
+        }
+
+        /**
+         * @return the contributing builds which recorded the commit, except the build itself
+         */
+        public List<Run<?, ?>> getRecordedIn() {
+            List<Run<?, ?>> builds = Lists.newArrayList();
+            for (String id : recordedInIds) {
+                Run<?, ?> build = id.equals(buildId) ? null : Run.fromExternalizableId(id);
+                if (build != null) {
+                    builds.add(build);
+                }
+            }
+            return builds;
+        }
+    }
+
+    /**
+     * Indexes every completed build in the background, with the permissions of the system,
+     * so completing a build does not wait for its contributing builds to be looked up.
+     */
+    @Extension
+    public static class Indexer extends RunListener<Run> {
+        @Override
+        public void onCompleted(final Run run, TaskListener listener) {
+            if (!ENABLED || !(run instanceof AbstractBuild || run instanceof WorkflowRun)) {
+                return;
+            }
+            executor().submit(new Runnable() {
+                public void run() {
+                    SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+                    try {
+                        add(run, contributingBuilds(run));
+                    } catch (IOException e) {
+                        LOGGER.log(Level.WARNING, "Failed to index the changes of " + run, e);
+                    } finally {
+                        SecurityContextHolder.setContext(previous);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onDeleted(Run run) {
+            String buildId = Util.getExternalizableId(run);
+            if (ENABLED && buildId != null) {
+                buildDeleted(buildId);
+            }
+        }
+
+        private static Collection<? extends Run> contributingBuilds(Run<?, ?> run) {
+            if (run instanceof AbstractBuild) {
+                AbstractBuild build = (AbstractBuild) run;
+                return new AllChangesAction(build.getProject()).getClosure(build).getBuilds();
+            }
+            WorkflowRun workflowRun = (WorkflowRun) run;
+            return new AllChangesWorkflowAction(workflowRun.getParent()).getClosure(workflowRun).getBuilds();
+        }
+    }
+
+    /**
+     * Removes deleted jobs from the index and renames moved jobs in it, including the jobs inside deleted or moved folders.
+     */
+    @Extension
+    public static class JobListener extends ItemListener {
+        @Override
+        public void onDeleted(Item item) {
+            if (ENABLED) {
+                jobDeleted(item.getFullName());
+            }
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            if (ENABLED) {
+                jobMoved(oldFullName, newFullName);
+            }
+        }
+    }
+}
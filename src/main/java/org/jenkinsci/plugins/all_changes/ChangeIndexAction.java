@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import hudson.Extension;
+import hudson.model.RootAction;
+import hudson.model.Run;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Search page for the builds containing a commit, backed by the {@link ChangeIndex}.
+ * <p>
+ * {@code all-changes-index/builds?commit=<id>} returns the hits as JSON lines, one build per line.
+ * Builds the current user cannot see are left out. If more than {@link ChangeIndex#MAX_HITS} builds contain the commit,
+ * only the newest are returned, followed by a last line {@code {"truncated": true}}.
+ */
+@Extension
+public class ChangeIndexAction implements RootAction {
+
+    public String getIconFileName() {
+        return null;
+    }
+
+    public String getDisplayName() {
+        return Messages.ChangeIndexAction_displayName();
+    }
+
+    public String getUrlName() {
+        return "all-changes-index";
+    }
+
+    /**
+     * @return the visible builds containing the commit, newest first
+     */
+    public ChangeIndex.Lookup lookup(String commitId) throws IOException {
+        if (commitId == null) {
+            return new ChangeIndex.Lookup(ImmutableList.<ChangeIndex.Hit>of(), false);
+        }
+        ChangeIndex.Lookup lookup = ChangeIndex.lookup(commitId);
+        ImmutableList.Builder<ChangeIndex.Hit> visible = ImmutableList.builder();
+        for (ChangeIndex.Hit hit : lookup.getHits()) {
+            if (hit.getBuild() != null) {
+                visible.add(hit);
+            }
+        }
+        return new ChangeIndex.Lookup(visible.build(), lookup.isTruncated());
+    }
+
+    public void doBuilds(StaplerRequest req, StaplerResponse rsp) throws IOException {
+        String commitId = req.getParameter("commit");
+        if (commitId == null || commitId.trim().isEmpty()) {
+            rsp.sendError(400, "commit is required");
+            return;
+        }
+        rsp.setContentType(ChangesStream.CONTENT_TYPE);
+        PrintWriter out = rsp.getWriter();
+        ChangeIndex.Lookup lookup = lookup(commitId);
+        for (ChangeIndex.Hit hit : lookup.getHits()) {
+            ImmutableList.Builder<String> recordedIn = ImmutableList.builder();
+            for (Run<?, ?> build : hit.getRecordedIn()) {
+                recordedIn.add(Util.getExternalizableId(build));
+            }
+            out.println(new JSONObject()
+                    .element("commitId", hit.getCommitId())
+                    .element("build", hit.getBuildId())
+                    .element("builds", recordedIn.build()));
+        }
+        if (lookup.isTruncated()) {
+            out.println(new JSONObject().element("truncated", true));
+        }
+        out.flush();
+    }
+}
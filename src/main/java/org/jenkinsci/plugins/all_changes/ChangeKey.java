@@ -0,0 +1,91 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Objects;
+import hudson.scm.ChangeLogSet;
+
+import java.io.Serializable;
+
+/**
+ * Identifies a change independently of the build it has been recorded in.
+ * <p>
+ * The key is built from the commit id, the raw message and the timestamp of a change,
+ * so no {@link hudson.scm.ChangeLogAnnotator} has to run to compute it.
+ * For SCMs without commit ids the whole message is part of the key.
+ */
+public final class ChangeKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String commitId;
+    private final int msgHash;
+    private final long timestamp;
+    private final String msg;
+
+    ChangeKey(String commitId, String msg, long timestamp) {
+        this.commitId = commitId;
+        this.msgHash = msg == null ? 0 : msg.hashCode();
+        this.timestamp = timestamp;
+        this.msg = commitId == null ? msg : null;
+    }
+
+    public static ChangeKey of(ChangeLogSet.Entry entry) {
+        return new ChangeKey(entry.getCommitId(), entry.getMsg(), entry.getTimestamp());
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChangeKey)) {
+            return false;
+        }
+        ChangeKey other = (ChangeKey) o;
+        return msgHash == other.msgHash
+                && timestamp == other.timestamp
+                && Objects.equal(commitId, other.commitId)
+                && Objects.equal(msg, other.msg);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(commitId, msgHash, timestamp);
+    }
+
+    @Override
+    public String toString() {
+        return (commitId == null ? "" : commitId) + "@" + timestamp + "#" + Integer.toHexString(msgHash);
+    }
+}
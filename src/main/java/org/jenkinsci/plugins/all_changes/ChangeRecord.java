@@ -0,0 +1,230 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import hudson.model.Run;
+import hudson.model.User;
+import hudson.scm.ChangeLogSet;
+import hudson.scm.RepositoryBrowser;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.URL;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compact, immutable copy of a change, with references to the builds it has been recorded in.
+ * <p>
+ * Unlike a {@link ChangeLogSet.Entry}, a record neither holds its change log set nor its build nor the affected files,
+ * so records can be cached without keeping builds in memory. Builds are referenced by their externalizable id.
+ */
+public final class ChangeRecord implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeRecord.class.getName());
+
+    private final String commitId;
+    private final String authorId;
+    private final long timestamp;
+    private final String msg;
+    private final String msgAnnotated;
+    private final String link;
+    private final List<String> buildIds;
+
+    private ChangeRecord(Builder builder) {
+        this.commitId = builder.commitId;
+        this.authorId = builder.authorId;
+        this.timestamp = builder.timestamp;
+        this.msg = builder.msg;
+        this.msgAnnotated = builder.msgAnnotated;
+        this.link = builder.link;
+        this.buildIds = builder.buildIds.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a builder with the data of the entry, without its affected paths and its annotated message
+     */
+    public static Builder builder(ChangeLogSet.Entry entry) {
+        User author = entry.getAuthor();
+        return new Builder()
+                .commitId(entry.getCommitId())
+                .authorId(author == null ? null : author.getId())
+                .timestamp(entry.getTimestamp())
+                .msg(entry.getMsg())
+                .link(linkOf(entry));
+    }
+
+    /**
+     * @return a builder with the data of the record, without the builds it has been recorded in
+     */
+    public static Builder builder(ChangeRecord record) {
+        return new Builder()
+                .commitId(record.commitId)
+                .authorId(record.authorId)
+                .timestamp(record.timestamp)
+                .msg(record.msg)
+                .msgAnnotated(record.msgAnnotated)
+                .link(record.link);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String linkOf(ChangeLogSet.Entry entry) {
+        ChangeLogSet<?> changeSet = entry.getParent();
+        RepositoryBrowser browser = changeSet == null ? null : changeSet.getBrowser();
+        if (browser == null) {
+            return null;
+        }
+        try {
+            URL link = browser.getChangeSetLink(entry);
+            return link == null ? null : link.toString();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to get the link of " + entry.getCommitId(), e);
+            return null;
+        }
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public String getAuthorId() {
+        return authorId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getMsg() {
+        return msg;
+    }
+
+    /**
+     * Messages are usually annotated when they are shown, see {@link AnnotatedMessageCache#get(ChangeRecord)}.
+     *
+     * @return the message as annotated by the {@link hudson.scm.ChangeLogAnnotator}s, null if it has not been annotated
+     */
+    public String getMsgAnnotated() {
+        return msgAnnotated;
+    }
+
+    /**
+     * @return the link to the change in the repository browser, null if there is none
+     */
+    public String getLink() {
+        return link;
+    }
+
+    /**
+     * @return externalizable ids of the builds the change has been recorded in
+     */
+    public List<String> getBuildIds() {
+        return buildIds;
+    }
+
+    public ChangeKey getKey() {
+        return new ChangeKey(commitId, msg, timestamp);
+    }
+
+    /**
+     * @return whether the change has been recorded in the build
+     */
+    public boolean isRecordedIn(Run<?, ?> build) {
+        return buildIds.contains(Util.getExternalizableId(build));
+    }
+
+    @Override
+    public String toString() {
+        return getKey() + " " + buildIds;
+    }
+
+    public static final class Builder {
+        private String commitId;
+        private String authorId;
+        private long timestamp = -1;
+        private String msg;
+        private String msgAnnotated;
+        private String link;
+        private final ImmutableList.Builder<String> buildIds = ImmutableList.builder();
+
+        private Builder() {
+        }
+
+        public Builder commitId(String commitId) {
+            this.commitId = commitId;
+            return this;
+        }
+
+        public Builder authorId(String authorId) {
+            this.authorId = authorId;
+            return this;
+        }
+
+        public Builder timestamp(long timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        public Builder msg(String msg) {
+            this.msg = msg;
+            return this;
+        }
+
+        public Builder msgAnnotated(String msgAnnotated) {
+            this.msgAnnotated = msgAnnotated;
+            return this;
+        }
+
+        public Builder link(String link) {
+            this.link = link;
+            return this;
+        }
+
+        public Builder recordedIn(Run<?, ?> build) {
+            String id = Util.getExternalizableId(build);
+            if (id != null) {
+                buildIds.add(id);
+            }
+            return this;
+        }
+
+        public Builder recordedIn(String id) {
+            buildIds.add(id);
+            return this;
+        }
+
+        public ChangeRecord build() {
+            return new ChangeRecord(this);
+        }
+    }
+}
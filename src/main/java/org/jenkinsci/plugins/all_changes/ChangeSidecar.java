@@ -0,0 +1,272 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import hudson.Extension;
+import hudson.PluginWrapper;
+import hudson.XmlFile;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.scm.ChangeLogSet;
+import jenkins.model.Jenkins;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compact binary copy of the changes of a build, stored next to its change log,
+ * so showing the changes does not need the SCM plugin to parse the change log again.
+ * <p>
+ * The file only holds the fields which are shown: commit id, author id, timestamp, raw message and link.
+ * Messages are annotated when they are shown, see {@link AnnotatedMessageCache#get(ChangeRecord)}.
+ * Links depend on the repository browser, so the file also holds the inputs it has been written with:
+ * the installed plugins and the last change of the job configuration. A file written with other inputs is written again.
+ * <p>
+ * The file is written when a build completes, or the first time the changes of an older build are read.
+ * Builds without the file, for example while they are running, fall back to their change log.
+ */
+final class ChangeSidecar {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeSidecar.class.getName());
+
+    /**
+     * Whether the changes of builds are read from and written to the file.
+     */
+    public static boolean ENABLED = !Boolean.getBoolean(ChangeSidecar.class.getName() + ".disabled");
+
+    static final String FILE_NAME = "all-changes.bin";
+
+    private static final int MAGIC = 0x41434853;
+    private static final int VERSION = 2;
+    private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    private static String plugins;
+
+    private ChangeSidecar() {
+    }
+
+    /**
+     * @return the changes recorded in the build, read from the file if it exists
+     */
+    static List<ChangeRecord> records(Run<?, ?> build) {
+        if (!ENABLED) {
+            return fromChangeLog(build);
+        }
+        File file = file(build);
+        String inputs = inputs(build);
+        if (file != null) {
+            List<ChangeRecord> records = read(file, Util.getExternalizableId(build), inputs);
+            AggregationMetrics.cache("sidecar", records != null);
+            if (records != null) {
+                return records;
+            }
+        }
+        List<ChangeRecord> records = fromChangeLog(build);
+        if (file != null && !build.isBuilding()) {
+            write(file, records, inputs);
+        }
+        return records;
+    }
+
+    /**
+     * @return the plugins and the last change of the job configuration, which the links of the changes depend on
+     */
+    static String inputs(Run<?, ?> build) {
+        Job<?, ?> job = build.getParent();
+        XmlFile config = job == null ? null : job.getConfigFile();
+        return plugins() + "/" + (config == null ? 0 : config.getFile().lastModified());
+    }
+
+    /**
+     * @return the installed plugins and their versions, which only change with a restart
+     */
+    private static synchronized String plugins() {
+        if (plugins == null) {
+            Jenkins jenkins = Jenkins.getInstance();
+            if (jenkins == null) {
+                return "";
+            }
+            List<String> versions = Lists.newArrayList();
+            for (PluginWrapper plugin : jenkins.getPluginManager().getPlugins()) {
+                versions.add(plugin.getShortName() + ":" + plugin.getVersion());
+            }
+            Collections.sort(versions);
+            plugins = Integer.toHexString(versions.hashCode());
+        }
+        return plugins;
+    }
+
+    private static List<ChangeRecord> fromChangeLog(Run<?, ?> build) {
+        long start = System.nanoTime();
+        ImmutableList.Builder<ChangeRecord> records = ImmutableList.builder();
+        for (ChangeLogSet<? extends ChangeLogSet.Entry> changeSet : Util.getChangeSets(build)) {
+            for (ChangeLogSet.Entry entry : changeSet) {
+                records.add(ChangeRecord.builder(entry).recordedIn(build).build());
+            }
+        }
+        AggregationMetrics.time("changelog", start);
+        return records.build();
+    }
+
+    private static File file(Run<?, ?> build) {
+        File rootDir = build.getRootDir();
+        return rootDir == null ? null : new File(rootDir, FILE_NAME);
+    }
+
+    /**
+     * @param inputs the inputs the records have to be written with
+     * @return the records of the file, or null if it does not exist, cannot be read or has been written with other inputs
+     */
+    static List<ChangeRecord> read(File file, String buildId, String inputs) {
+        DataInputStream in;
+        try {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        } catch (FileNotFoundException e) {
+            return null;
+        }
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !inputs.equals(readString(in))) {
+                return null;
+            }
+            int count = in.readInt();
+            ImmutableList.Builder<ChangeRecord> records = ImmutableList.builder();
+            for (int i = 0; i < count; i++) {
+                ChangeRecord.Builder record = ChangeRecord.builder()
+                        .commitId(readString(in))
+                        .authorId(readString(in))
+                        .timestamp(in.readLong())
+                        .msg(readString(in))
+                        .link(readString(in));
+                if (buildId != null) {
+                    record.recordedIn(buildId);
+                }
+                records.add(record.build());
+            }
+            return records.build();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to read " + file, e);
+            return null;
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Failed to close " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Writes the records to a temporary file of its own first, so readers never see a partially written file
+     * and concurrent writers of the same file do not need a lock. All of them write the same records.
+     */
+    static void write(File file, List<ChangeRecord> records, String inputs) {
+        File tmp;
+        try {
+            tmp = File.createTempFile(FILE_NAME, ".tmp", file.getParentFile());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write " + file, e);
+            return;
+        }
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeString(out, inputs);
+                out.writeInt(records.size());
+                for (ChangeRecord record : records) {
+                    writeString(out, record.getCommitId());
+                    writeString(out, record.getAuthorId());
+                    out.writeLong(record.getTimestamp());
+                    writeString(out, record.getMsg());
+                    writeString(out, record.getLink());
+                }
+            } finally {
+                out.close();
+            }
+            if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                throw new IOException("Failed to rename " + tmp + " to " + file);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write " + file, e);
+            tmp.delete();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = s.getBytes(Charsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("Corrupt string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    /**
+     * Writes the file of every completed build, while its change log is still in memory.
+     */
+    @Extension
+    public static class Writer extends RunListener<Run> {
+        @Override
+        public void onCompleted(Run run, TaskListener listener) {
+            if (!ENABLED) {
+                return;
+            }
+            File file = file(run);
+            if (file != null && !file.exists()) {
+                write(file, fromChangeLog(run), inputs(run));
+            }
+        }
+    }
+}
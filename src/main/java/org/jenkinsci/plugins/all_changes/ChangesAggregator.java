@@ -24,15 +24,36 @@
 
 package org.jenkinsci.plugins.all_changes;
 
+import com.google.common.collect.ImmutableList;
 import hudson.ExtensionList;
 import hudson.ExtensionPoint;
 import hudson.model.AbstractBuild;
-import jenkins.model.Jenkins;
+import hudson.model.Run;
 
 import java.util.Collection;
 
+/**
+ * Finds the builds which contribute changes to a build, e.g. upstream builds or triggered sub-builds.
+ */
 public abstract class ChangesAggregator implements ExtensionPoint {
-    public abstract Collection<AbstractBuild> aggregateBuildsWithChanges(AbstractBuild build);
+
+    /**
+     * Returns the builds which directly contribute changes to the given build.
+     * The default implementation delegates to {@link #aggregateBuildsWithChanges(AbstractBuild)} for freestyle builds.
+     */
+    public Collection<? extends Run> aggregateRunsWithChanges(Run<?, ?> run) {
+        if (run instanceof AbstractBuild) {
+            return aggregateBuildsWithChanges((AbstractBuild) run);
+        }
+        return ImmutableList.of();
+    }
+
+    /**
+     * Returns the builds which directly contribute changes to the given freestyle build.
+     */
+    public Collection<AbstractBuild> aggregateBuildsWithChanges(AbstractBuild build) {
+        return ImmutableList.of();
+    }
 
     public static ExtensionList<ChangesAggregator> all() {
         return Util.getInstance().getExtensionList(ChangesAggregator.class);
@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.Job;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits for calculating the changes of a single build, so loops or huge fan-outs cannot stall the controller.
+ * <p>
+ * The global limits are given by system properties, jobs may restrict them further with an {@link AllChangesJobProperty}.
+ * When a limit is hit, the changes found so far are shown and marked as truncated.
+ *
+ * @see AllChangesAction#MAX_BUILDS
+ * @see AllChangesAction#MAX_CHANGES
+ * @see AggregationExecutor#TIMEOUT
+ */
+final class ChangesBudget {
+
+    private final int maxBuilds;
+    private final int maxChanges;
+    private final long timeout;
+
+    ChangesBudget(int maxBuilds, int maxChanges, long timeout) {
+        this.maxBuilds = maxBuilds;
+        this.maxChanges = maxChanges;
+        this.timeout = timeout;
+    }
+
+    /**
+     * @param job the job of the build, may be null
+     * @return the stricter of the global limits and the limits of the job
+     */
+    static ChangesBudget of(Job<?, ?> job) {
+        AllChangesJobProperty property = job == null ? null : job.getProperty(AllChangesJobProperty.class);
+        if (property == null) {
+            return new ChangesBudget(AllChangesAction.MAX_BUILDS, AllChangesAction.MAX_CHANGES, AggregationExecutor.TIMEOUT);
+        }
+        return new ChangesBudget(
+                (int) stricter(AllChangesAction.MAX_BUILDS, property.getMaxBuilds()),
+                (int) stricter(AllChangesAction.MAX_CHANGES, property.getMaxChanges()),
+                stricter(AggregationExecutor.TIMEOUT, property.getTimeout()));
+    }
+
+    static long stricter(long global, long job) {
+        if (global <= 0) {
+            return job;
+        }
+        if (job <= 0) {
+            return global;
+        }
+        return Math.min(global, job);
+    }
+
+    /**
+     * @return the maximal number of contributing builds, 0 for no limit
+     */
+    int getMaxBuilds() {
+        return maxBuilds;
+    }
+
+    /**
+     * @return the maximal number of changes loaded, 0 for no limit
+     */
+    int getMaxChanges() {
+        return maxChanges;
+    }
+
+    /**
+     * @return the maximal time in milliseconds for the walk and loading the changes together, 0 for no limit
+     */
+    long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * @return the limits, to tell calculations with different budgets apart
+     */
+    String key() {
+        return maxBuilds + "/" + maxChanges + "/" + timeout;
+    }
+
+    /**
+     * @param start the start of the calculation, as returned by {@link System#nanoTime()}
+     * @return the time the calculation has to end, as returned by {@link System#nanoTime()}, 0 for no limit
+     */
+    long deadline(long start) {
+        return timeout > 0 ? start + TimeUnit.MILLISECONDS.toNanos(timeout) : 0;
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import hudson.model.Run;
+import hudson.security.ACL;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Calculates the changes of builds on a background thread, so the all changes page can be shown
+ * before the changes of its builds are known.
+ * <p>
+ * The page starts loading the changes of its builds and renders a placeholder for each build whose
+ * changes are not known yet, which the browser fills in by polling the {@code buildChanges} endpoint of the action.
+ * Changes of completed builds stay cached, so the next request shows them right away.
+ * <p>
+ * Changes are calculated as {@link ACL#SYSTEM} and cached by build alone, so every user polling a build shares them.
+ * Each poll only returns the changes recorded in builds the polling user can read.
+ */
+final class ChangesLoader {
+
+    /**
+     * Whether the all changes page loads the changes of its builds in the background.
+     */
+    public static boolean ENABLED = !Boolean.getBoolean(ChangesLoader.class.getName() + ".disabled");
+    /**
+     * Number of threads loading changes.
+     */
+    public static int THREADS = Integer.getInteger(ChangesLoader.class.getName() + ".threads", 2);
+    /**
+     * Maximal number of builds whose changes are cached.
+     */
+    public static int SIZE = Integer.getInteger(ChangesLoader.class.getName() + ".size", 200);
+
+    /**
+     * Request attribute telling the {@code main} view to render the changes of a single build.
+     */
+    static final String BUILD_CHANGES_ATTRIBUTE = "allChanges.buildChanges";
+
+    private static final Cache<String, Future<Loaded>> CACHE = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+
+    private static AggregationExecutor executor;
+
+    private ChangesLoader() {
+    }
+
+    /**
+     * Starts loading the changes of the build unless they are already loaded or being loaded.
+     *
+     * @return the changes of the build, or null if they are still being calculated
+     */
+    static <B extends Run> ChangesPage.BuildChanges<B> poll(final B build,
+                                                             final Function<B, ChangesPage.BuildChanges<B>> allChanges) {
+        final String key = Util.getExternalizableId((Run<?, ?>) build);
+        Future<Loaded> future;
+        if (key == null) {
+            future = executor().submit(new LoadTask<B>(build, allChanges));
+        } else {
+            try {
+                future = CACHE.get(key, new Callable<Future<Loaded>>() {
+                    public Future<Loaded> call() {
+                        return executor().submit(new LoadTask<B>(build, allChanges));
+                    }
+                });
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        AggregationMetrics.cache("loadedChanges", future.isDone());
+        if (!future.isDone()) {
+            return null;
+        }
+        Loaded loaded;
+        try {
+            loaded = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            forget(key, future);
+            throw new IllegalStateException("Failed to calculate the changes of " + key, e.getCause());
+        }
+        if (!loaded.complete) {
+            forget(key, future);
+        }
+        return ChangesPage.BuildChanges.ofRecords(build, new ReadableBuilds().filter(loaded.records), loaded.truncated);
+    }
+
+    /**
+     * Answers the poll of a placeholder: 202 while the changes are being calculated, 204 if the build has no changes,
+     * otherwise the changes of the build rendered by the {@code main} view of the action.
+     */
+    static <B extends Run> void serve(StaplerRequest req, StaplerResponse rsp, Object action, B build,
+                                      Function<B, ChangesPage.BuildChanges<B>> allChanges)
+            throws IOException, ServletException {
+        if (build == null) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ChangesPage.BuildChanges<B> changes = poll(build, allChanges);
+        if (changes == null) {
+            rsp.setStatus(HttpServletResponse.SC_ACCEPTED);
+        } else if (changes.isEmpty()) {
+            rsp.setStatus(HttpServletResponse.SC_NO_CONTENT);
+        } else {
+            req.setAttribute(BUILD_CHANGES_ATTRIBUTE, changes);
+            rsp.forward(action, "main", req);
+        }
+    }
+
+    private static void forget(String key, Future<Loaded> future) {
+        if (key != null) {
+            CACHE.asMap().remove(key, future);
+        }
+    }
+
+    /**
+     * Forgets the changes of the given build and of all builds it contributes to.
+     */
+    static void invalidate(Run<?, ?> run) {
+        String id = Util.getExternalizableId(run);
+        if (id == null) {
+            return;
+        }
+        CACHE.invalidate(id);
+        Iterator<Map.Entry<String, Future<Loaded>>> entries = CACHE.asMap().entrySet().iterator();
+        while (entries.hasNext()) {
+            Future<Loaded> future = entries.next().getValue();
+            try {
+                if (future.isDone() && future.get().isRecordedIn(id)) {
+                    entries.remove();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                entries.remove();
+            }
+        }
+    }
+
+    static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    private static synchronized ExecutorService executor() {
+        int threads = Math.max(1, THREADS);
+        if (executor == null || executor.getMaximumPoolSize() != threads) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            executor = new AggregationExecutor(threads, "AllChanges.loader");
+        }
+        return executor;
+    }
+
+    /**
+     * Compact changes of a build, complete unless the build was still running or the changes were truncated.
+     * Loaded changes do not refer to any build, so the cache never keeps builds in memory.
+     */
+    private static class Loaded {
+        private final List<ChangeRecord> records;
+        private final boolean truncated;
+        private final boolean complete;
+
+        Loaded(List<ChangeRecord> records, boolean truncated, boolean complete) {
+            this.records = records;
+            this.truncated = truncated;
+            this.complete = complete;
+        }
+
+        boolean isRecordedIn(String id) {
+            for (ChangeRecord record : records) {
+                if (record.getBuildIds().contains(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class LoadTask<B extends Run> implements Callable<Loaded> {
+        private final B build;
+        private final Function<B, ChangesPage.BuildChanges<B>> allChanges;
+
+        LoadTask(B build, Function<B, ChangesPage.BuildChanges<B>> allChanges) {
+            this.build = build;
+            this.allChanges = allChanges;
+        }
+
+        public Loaded call() {
+            long start = System.nanoTime();
+            boolean building = build.isBuilding();
+            ChangesPage.BuildChanges<B> changes;
+            SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+            try {
+                changes = allChanges.apply(build);
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+            Loaded loaded = new Loaded(changes.getRecords(), changes.isTruncated(), !building && !changes.isTruncated());
+            AggregationMetrics.time("load", start);
+            return loaded;
+        }
+    }
+}
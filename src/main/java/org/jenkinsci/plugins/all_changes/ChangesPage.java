@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimap;
+import hudson.model.Run;
+import hudson.scm.ChangeLogSet;
+
+import java.util.List;
+
+/**
+ * A page of builds with changes, newest first.
+ * <p>
+ * Builds are loaded one by one, starting at the cursor, until enough builds with changes have been found,
+ * so older builds are only loaded when their page is requested.
+ * Builds whose changes are still being loaded count as builds with changes.
+ *
+ * @param <B> the build type
+ */
+public class ChangesPage<B extends Run> {
+
+    private final List<BuildChanges<B>> builds;
+    private final Integer nextCursor;
+
+    ChangesPage(List<BuildChanges<B>> builds, Integer nextCursor) {
+        this.builds = builds;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return the builds on this page which have changes
+     */
+    public List<BuildChanges<B>> getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return the build number where the next page starts, or null if this is the last page
+     */
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return whether the changes of all builds on this page are known
+     */
+    public boolean isLoaded() {
+        for (BuildChanges<B> build : builds) {
+            if (build.isPending()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param first the newest build to look at, may be null
+     * @param limit maximal number of builds with changes on the page, 0 for no limit
+     * @param allChanges the changes of a build, or null if they are still being loaded
+     */
+    @SuppressWarnings("unchecked")
+    static <B extends Run> ChangesPage<B> collect(B first, int limit, Function<B, BuildChanges<B>> allChanges) {
+        ImmutableList.Builder<BuildChanges<B>> builds = ImmutableList.builder();
+        int found = 0;
+        B build = first;
+        while (build != null && (limit <= 0 || found < limit)) {
+            AllChangesRecord record = ((Run<?, ?>) build).getAction(AllChangesRecord.class);
+            if (record == null || record.hasChanges()) {
+                BuildChanges<B> changes = allChanges.apply(build);
+                if (changes == null) {
+                    builds.add(BuildChanges.pending(build));
+                    found++;
+                } else if (!changes.isEmpty()) {
+                    builds.add(changes);
+                    found++;
+                }
+            }
+            build = (B) build.getPreviousBuild();
+        }
+        return new ChangesPage<B>(builds.build(), build == null ? null : build.getNumber());
+    }
+
+    /**
+     * The changes of a single build, either as calculated or as compact {@link ChangeRecord}s only.
+     */
+    public static class BuildChanges<B extends Run> {
+        private final B build;
+        private final Multimap<ChangeLogSet.Entry, B> changes;
+        private volatile List<ChangeRecord> records;
+        private final boolean truncated;
+
+        private BuildChanges(B build, Multimap<ChangeLogSet.Entry, B> changes, List<ChangeRecord> records, boolean truncated) {
+            this.build = build;
+            this.changes = changes;
+            this.records = records;
+            this.truncated = truncated;
+        }
+
+        static <B extends Run> BuildChanges<B> of(B build, Multimap<ChangeLogSet.Entry, B> changes, boolean truncated) {
+            return new BuildChanges<B>(build, changes, null, truncated);
+        }
+
+        static <B extends Run> BuildChanges<B> ofRecords(B build, List<ChangeRecord> records, boolean truncated) {
+            return new BuildChanges<B>(build, null, records, truncated);
+        }
+
+        static <B extends Run> BuildChanges<B> pending(B build) {
+            return new BuildChanges<B>(build, null, null, false);
+        }
+
+        public B getBuild() {
+            return build;
+        }
+
+        /**
+         * Only {@code getAllChanges} of the actions calculates the changes themselves.
+         * The pages, the background loader and {@code getBuildChanges} only know the records,
+         * so for them this is always null.
+         *
+         * @return the changes of the build together with the builds they have been recorded in,
+         * or null if only the records are known or the changes are still being loaded
+         * @see #getRecords()
+         */
+        public Multimap<ChangeLogSet.Entry, B> getChanges() {
+            return changes;
+        }
+
+        /**
+         * @return compact copies of the changes, or null if they are still being loaded
+         * @see ChangesLoader
+         */
+        public List<ChangeRecord> getRecords() {
+            List<ChangeRecord> result = records;
+            if (result == null && changes != null) {
+                result = ContributingBuilds.records(changes);
+                records = result;
+            }
+            return result;
+        }
+
+        /**
+         * @return whether the changes are still being loaded
+         */
+        public boolean isPending() {
+            return changes == null && records == null;
+        }
+
+        public boolean isEmpty() {
+            return changes != null ? changes.isEmpty() : records == null || records.isEmpty();
+        }
+
+        /**
+         * @return whether only part of the changes is known, because a {@link ChangesBudget} has been exceeded
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
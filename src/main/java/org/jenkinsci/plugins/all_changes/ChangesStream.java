@@ -0,0 +1,228 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import hudson.Functions;
+import hudson.model.Job;
+import hudson.model.PermalinkProjectAction;
+import hudson.model.Run;
+import hudson.model.User;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.SortedMap;
+
+/**
+ * Writes the changes of the builds of a job as JSON lines, one change per line, newest build first.
+ * <p>
+ * Builds are loaded and written one by one and the response is flushed after each build,
+ * so neither the builds nor their changes are kept in memory for the whole response.
+ * Each line contains the build, the commit id, author, timestamp and message of the change,
+ * and the contributing builds the change has been recorded in.
+ * <p>
+ * The changes of each build are loaded like on the all changes page, within the {@link ChangesBudget} of the job.
+ * If the contributing builds or the changes of a build exceed the budget, or loading them takes longer,
+ * a line with the build and {@code "truncated": true} follows its changes.
+ * <p>
+ * Supported query parameters are {@code from} and {@code to} (build numbers or permalinks like {@code lastSuccessfulBuild})
+ * and {@code limit}, the maximal number of builds with changes, 0 for no limit.
+ * An unknown {@code from} or {@code to} is answered with 404.
+ */
+final class ChangesStream {
+
+    static final String CONTENT_TYPE = "application/x-ndjson;charset=UTF-8";
+
+    private ChangesStream() {
+    }
+
+    /**
+     * @param defaultLimit the number of builds with changes written if the request does not give a limit
+     * @param allChanges   calculates the changes of a build within the budget of the job
+     */
+    static <B extends Run> void serve(StaplerRequest req, StaplerResponse rsp, Job<?, ?> job, int defaultLimit,
+                                      Class<B> type, Function<B, ChangesPage.BuildChanges<B>> allChanges) throws IOException {
+        String limitParameter = req.getParameter("limit");
+        int limit;
+        try {
+            limit = limitParameter == null ? defaultLimit : Integer.parseInt(limitParameter);
+        } catch (NumberFormatException e) {
+            rsp.sendError(400, "limit must be a number");
+            return;
+        }
+        String from = req.getParameter("from");
+        String to = req.getParameter("to");
+        if (!exists(job, from) || !exists(job, to)) {
+            rsp.sendError(404, "No such build");
+            return;
+        }
+        Iterator<Run> builds = builds(job, from, to);
+        rsp.setContentType(CONTENT_TYPE);
+        PrintWriter out = rsp.getWriter();
+        write(Iterators.filter(builds, type), limit, allChanges, out);
+        out.flush();
+    }
+
+    /**
+     * @return the number of builds with changes which have been written
+     */
+    static <B extends Run> int write(Iterator<B> builds, int limit, Function<B, ChangesPage.BuildChanges<B>> allChanges,
+                                     PrintWriter out) {
+        int found = 0;
+        while (builds.hasNext() && (limit <= 0 || found < limit)) {
+            B build = builds.next();
+            AllChangesRecord record = ((Run<?, ?>) build).getAction(AllChangesRecord.class);
+            if (record != null && !record.hasChanges()) {
+                continue;
+            }
+            ChangesPage.BuildChanges<B> changes = allChanges.apply(build);
+            String buildId = Util.getExternalizableId(build);
+            if (!changes.getRecords().isEmpty()) {
+                for (ChangeRecord change : changes.getRecords()) {
+                    out.println(toJson(new JSONObject().element("build", buildId), change));
+                }
+                found++;
+            }
+            if (changes.isTruncated()) {
+                out.println(new JSONObject().element("build", buildId).element("truncated", true));
+            }
+            out.flush();
+        }
+        return found;
+    }
+
+    /**
+     * Writes the changes of a range of builds as one deduplicated set, one change per line.
+     * Both {@code from} and {@code to} are required and inclusive, so a range never walks back to the first build.
+     * If the budget is exceeded, a last line {@code {"truncated": true}} follows the changes.
+     *
+     * @param range calculates the changes of the builds in the range, newest first
+     */
+    static <B extends Run> void serveRange(StaplerRequest req, StaplerResponse rsp, Job<?, ?> job,
+                                           Function<Iterator<Run>, RangeChanges<B>> range) throws IOException {
+        String from = req.getParameter("from");
+        String to = req.getParameter("to");
+        if (from == null || to == null) {
+            rsp.sendError(400, "from and to are required");
+            return;
+        }
+        if (!exists(job, from) || !exists(job, to)) {
+            rsp.sendError(404, "No such build");
+            return;
+        }
+        RangeChanges<B> changes = range.apply(builds(job, from, to));
+        rsp.setContentType(CONTENT_TYPE);
+        PrintWriter out = rsp.getWriter();
+        for (ChangeRecord record : changes.getRecords()) {
+            out.println(toJson(record));
+        }
+        if (changes.isTruncated()) {
+            out.println(new JSONObject().element("truncated", true));
+        }
+        out.flush();
+    }
+
+    static JSONObject toJson(ChangeRecord record) {
+        return toJson(new JSONObject(), record);
+    }
+
+    private static JSONObject toJson(JSONObject json, ChangeRecord record) {
+        json.element("commitId", record.getCommitId());
+        if (record.getAuthorId() != null) {
+            User author = User.get(record.getAuthorId(), false, Collections.emptyMap());
+            if (author != null) {
+                json.element("author", author.getFullName());
+            }
+            json.element("authorId", record.getAuthorId());
+        }
+        if (record.getTimestamp() >= 0) {
+            json.element("timestamp", record.getTimestamp());
+        }
+        json.element("msg", record.getMsg());
+        json.element("builds", record.getBuildIds());
+        return json;
+    }
+
+    /**
+     * @return the builds between from and to, or all builds if neither is given, newest first
+     */
+    @SuppressWarnings("unchecked")
+    static Iterator<Run> builds(final Job<?, ?> job, String from, String to) {
+        if (from != null || to != null) {
+            SortedMap<Integer, ? extends Run> buildsAsMap = job.getBuildsAsMap();
+            SortedMap<Integer, ? extends Run> range = Functions.filter(buildsAsMap, buildNumber(job, from), buildNumber(job, to));
+            return (Iterator<Run>) range.values().iterator();
+        }
+        return new AbstractIterator<Run>() {
+            private Run next = job.getLastBuild();
+
+            @Override
+            protected Run computeNext() {
+                if (next == null) {
+                    return endOfData();
+                }
+                Run current = next;
+                next = current.getPreviousBuild();
+                return current;
+            }
+        };
+    }
+
+    /**
+     * @return whether the build given by number or permalink exists, true if no build is given
+     */
+    private static boolean exists(Job<?, ?> job, String build) {
+        return build == null || buildNumber(job, build) != null;
+    }
+
+    /**
+     * @return the number of a build given by number or permalink, null if there is no such build
+     */
+    static String buildNumber(Job<?, ?> job, String build) {
+        if (build == null) {
+            return null;
+        }
+        Run<?, ?> run;
+        if (build.matches("\\d+")) {
+            try {
+                run = job.getBuildByNumber(Integer.parseInt(build));
+            } catch (NumberFormatException e) {
+                // too large to be a build number
+                return null;
+            }
+        } else {
+            PermalinkProjectAction.Permalink permalink = job.getPermalinks().get(build);
+            run = permalink == null ? null : permalink.resolve(job);
+        }
+        return run == null ? null : String.valueOf(run.getNumber());
+    }
+}
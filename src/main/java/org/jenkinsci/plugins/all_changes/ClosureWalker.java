@@ -0,0 +1,308 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the set of builds reachable from a build.
+ * <p>
+ * The walk is breadth first and only expands the builds found in the previous round,
+ * so each build is expanded at most once.
+ * If an executor is given, the builds of a round are expanded in parallel.
+ * <p>
+ * Builds whose complete closure is already known are not expanded, their closure is added instead,
+ * so a walk only expands the builds which have not been walked before.
+ * The depth limit only applies to expanded builds.
+ * <p>
+ * Expanders which search for a long time can read the {@link Deadline} of the walk and stop early.
+ *
+ * @param <B> the build type
+ */
+class ClosureWalker<B> {
+
+    /**
+     * Finds the builds directly contributing to a build.
+     */
+    interface Expander<B> {
+        Collection<? extends B> expand(B build);
+    }
+
+    /**
+     * Looks up the closures of builds reached by the walk which have already been calculated.
+     */
+    interface KnownClosures<B> {
+        /**
+         * @return the complete closure of the build, or null if the build has to be expanded
+         */
+        Collection<? extends B> get(B build);
+    }
+
+    /**
+     * The time limit of the walk a build is expanded for.
+     */
+    static final class Deadline {
+        private static final Deadline NONE = new Deadline(0);
+        private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<Deadline>();
+
+        private final long nanos;
+        private volatile boolean exceeded;
+
+        Deadline(long nanos) {
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the deadline of the walk expanding a build on this thread, without a limit outside of walks
+         */
+        static Deadline current() {
+            Deadline deadline = CURRENT.get();
+            return deadline == null ? NONE : deadline;
+        }
+
+        /**
+         * @return whether the time of the walk is up
+         */
+        boolean hasPassed() {
+            return nanos != 0 && System.nanoTime() > nanos;
+        }
+
+        /**
+         * Marks the walk as truncated, because an expansion stopped before it found all builds.
+         */
+        void exceeded() {
+            if (this != NONE) {
+                exceeded = true;
+            }
+        }
+
+        boolean isExceeded() {
+            return exceeded;
+        }
+    }
+
+    private final Expander<B> expander;
+    private final KnownClosures<B> knownClosures;
+    private final int maxDepth;
+    private final int maxBuilds;
+    private final ExecutorService executor;
+    private final long timeout;
+
+    /**
+     * @param maxDepth  maximal number of rounds, 0 for no limit
+     * @param maxBuilds maximal size of the closure, 0 for no limit
+     */
+    ClosureWalker(Expander<B> expander, int maxDepth, int maxBuilds) {
+        this(expander, maxDepth, maxBuilds, null, 0);
+    }
+
+    /**
+     * @param executor executor for expanding the builds of a round in parallel, null to expand on the calling thread
+     * @param timeout  maximal time for the whole walk in milliseconds, 0 for no limit
+     */
+    ClosureWalker(Expander<B> expander, int maxDepth, int maxBuilds, ExecutorService executor, long timeout) {
+        this(expander, null, maxDepth, maxBuilds, executor, timeout);
+    }
+
+    /**
+     * @param knownClosures the closures of builds which do not have to be expanded again, null to expand all builds
+     */
+    ClosureWalker(Expander<B> expander, KnownClosures<B> knownClosures, int maxDepth, int maxBuilds,
+                  ExecutorService executor, long timeout) {
+        this.expander = expander;
+        this.knownClosures = knownClosures;
+        this.maxDepth = maxDepth;
+        this.maxBuilds = maxBuilds;
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    BuildClosure<B> walk(B root) {
+        Set<B> builds = Sets.newLinkedHashSet();
+        builds.add(root);
+        return walk(builds, ImmutableList.of(root), false);
+    }
+
+    /**
+     * Computes the union of the closures of several builds in one walk, expanding each reachable build at most once.
+     * Roots with a known closure are not expanded either.
+     */
+    BuildClosure<B> walk(Collection<? extends B> roots) {
+        Set<B> builds = Sets.newLinkedHashSet();
+        List<B> frontier = Lists.newArrayList();
+        boolean truncated = false;
+        for (B root : roots) {
+            if (builds.contains(root)) {
+                continue;
+            }
+            if (maxBuilds > 0 && builds.size() >= maxBuilds) {
+                truncated = true;
+                break;
+            }
+            builds.add(root);
+            Collection<? extends B> known = knownClosures == null ? null : knownClosures.get(root);
+            if (known == null) {
+                frontier.add(root);
+            } else if (!splice(builds, known)) {
+                truncated = true;
+                break;
+            }
+        }
+        return walk(builds, frontier, truncated);
+    }
+
+    private BuildClosure<B> walk(Set<B> builds, List<B> frontier, boolean truncated) {
+        Deadline deadline = new Deadline(timeout > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout) : 0);
+        int depth = 0;
+        int expansions = 0;
+        while (!frontier.isEmpty() && !truncated) {
+            if (maxDepth > 0 && depth >= maxDepth) {
+                truncated = true;
+                break;
+            }
+            List<B> next = Lists.newArrayList();
+            Iterator<Collection<? extends B>> expanded = expand(frontier, deadline);
+            int expandedInRound = 0;
+            while (expanded.hasNext() && !truncated) {
+                expandedInRound++;
+                for (B found : expanded.next()) {
+                    if (builds.contains(found)) {
+                        continue;
+                    }
+                    if (maxBuilds > 0 && builds.size() >= maxBuilds) {
+                        truncated = true;
+                        break;
+                    }
+                    builds.add(found);
+                    Collection<? extends B> known = knownClosures == null ? null : knownClosures.get(found);
+                    if (known == null) {
+                        next.add(found);
+                    } else if (!splice(builds, known)) {
+                        truncated = true;
+                        break;
+                    }
+                }
+            }
+            expansions += expandedInRound;
+            truncated |= expandedInRound < frontier.size() || deadline.isExceeded();
+            frontier = next;
+            depth++;
+        }
+        return new BuildClosure<B>(builds, expansions, truncated);
+    }
+
+    /**
+     * Adds the known closure of a reached build without expanding its builds.
+     *
+     * @return false if the closure did not fit into the maximal number of builds
+     */
+    private boolean splice(Set<B> builds, Collection<? extends B> known) {
+        for (B build : known) {
+            if (builds.contains(build)) {
+                continue;
+            }
+            if (maxBuilds > 0 && builds.size() >= maxBuilds) {
+                return false;
+            }
+            builds.add(build);
+        }
+        return true;
+    }
+
+    /**
+     * @return the expansions of the builds, ends early if the deadline passes
+     */
+    private Iterator<Collection<? extends B>> expand(final List<B> frontier, final Deadline deadline) {
+        if (executor == null || frontier.size() < 2) {
+            return new AbstractIterator<Collection<? extends B>>() {
+                private final Iterator<B> builds = frontier.iterator();
+
+                @Override
+                protected Collection<? extends B> computeNext() {
+                    if (!builds.hasNext() || deadline.hasPassed()) {
+                        return endOfData();
+                    }
+                    return expand(builds.next(), deadline);
+                }
+            };
+        }
+        List<Callable<Collection<? extends B>>> tasks = Lists.newArrayList();
+        for (final B build : frontier) {
+            tasks.add(new Callable<Collection<? extends B>>() {
+                public Collection<? extends B> call() {
+                    return expand(build, deadline);
+                }
+            });
+        }
+        List<Collection<? extends B>> results = Lists.newArrayList();
+        try {
+            List<Future<Collection<? extends B>>> futures = deadline.nanos == 0
+                    ? executor.invokeAll(tasks)
+                    : executor.invokeAll(tasks, deadline.nanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            for (Future<Collection<? extends B>> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (CancellationException e) {
+                    // timed out, the walk is truncated
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return results.iterator();
+    }
+
+    private Collection<? extends B> expand(B build, Deadline deadline) {
+        Deadline.CURRENT.set(deadline);
+        try {
+            return expander.expand(build);
+        } finally {
+            Deadline.CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import hudson.model.Run;
+import hudson.scm.ChangeLogSet;
+import hudson.security.ACL;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Calculates the contributing builds and their changes for freestyle builds and pipeline runs alike.
+ */
+final class ContributingBuilds {
+
+    private ContributingBuilds() {
+    }
+
+    /**
+     * Returns the recorded or cached closure of the build, or walks the aggregators to calculate it.
+     * Only builds of the given type are part of the closure.
+     * Aggregator results are shared with other calculations using the same context,
+     * and reached builds with a recorded or cached closure are not walked again.
+     * The walk stops when it exceeds the number of builds or the time of the budget.
+     * <p>
+     * The closure is always walked as {@link ACL#SYSTEM}, so recorded, cached and running closures
+     * can be shared between users. Only the builds the current user can read are returned.
+     */
+    static <B extends Run> BuildClosure<B> closure(B build, List<ChangesAggregator> aggregators,
+                                                   Class<B> type, AggregationContext context, ChangesBudget budget) {
+        BuildClosure<B> closure;
+        SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+        try {
+            closure = fullClosure(build, aggregators, type, context, budget);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+        return new ReadableBuilds().filter(closure);
+    }
+
+    private static <B extends Run> BuildClosure<B> fullClosure(final B build, final List<ChangesAggregator> aggregators,
+                                                               final Class<B> type, final AggregationContext context,
+                                                               final ChangesBudget budget) {
+        Set<B> known = known(build, type);
+        if (known != null) {
+            return new BuildClosure<B>(known, 0, false);
+        }
+        String key = InFlight.key("closure " + type.getName(), build, budget);
+        return InFlight.get(key, new Callable<BuildClosure<B>>() {
+            public BuildClosure<B> call() {
+                return walk(build, aggregators, type, context, budget);
+            }
+        });
+    }
+
+    private static <B extends Run> BuildClosure<B> walk(B build, List<ChangesAggregator> aggregators, Class<B> type,
+                                                        AggregationContext context, ChangesBudget budget) {
+        long start = System.nanoTime();
+        BuildClosure<B> closure = new ClosureWalker<B>(new AggregatorExpander<B>(aggregators, type, context),
+                new KnownClosures<B>(type), AllChangesAction.MAX_DEPTH, budget.getMaxBuilds(),
+                AggregationExecutor.get(), budget.getTimeout()).walk(build);
+        AggregationMetrics.time("closure", start);
+        AggregationMetrics.size("closure.size", closure.getBuilds().size());
+        if (closure.isTruncated()) {
+            AggregationMetrics.count("closure.truncated", 1);
+        } else {
+            ContributingBuildsCache.put(build, closure.getBuilds());
+        }
+        return closure;
+    }
+
+    /**
+     * @return the recorded or cached closure of the build, or null if it has to be calculated
+     */
+    private static <B extends Run> Set<B> known(B build, Class<B> type) {
+        AllChangesRecord record = ((Run<?, ?>) build).getAction(AllChangesRecord.class);
+        if (record != null) {
+            Set<B> recorded = record.getContributingBuilds(type);
+            AggregationMetrics.cache("record", recorded != null);
+            if (recorded != null) {
+                return recorded;
+            }
+        }
+        Set<B> cached = ContributingBuildsCache.get(build, type);
+        AggregationMetrics.cache("contributingBuilds", cached != null);
+        return cached;
+    }
+
+    /**
+     * Returns the deduplicated changes of the contributing builds, loading change logs only until
+     * the number of changes or the time of the budget is exceeded.
+     *
+     * @param start the start of the calculation, as returned by {@link System#nanoTime()}
+     * @return the changes, truncated if the closure was truncated or the budget has been exceeded
+     */
+    static <B extends Run> ChangesPage.BuildChanges<B> changes(B build, BuildClosure<B> closure, Class<B> type,
+                                                               ChangesBudget budget, long start) {
+        long deadline = budget.deadline(start);
+        boolean truncated = closure.isTruncated();
+        List<ChangeLogSet<? extends ChangeLogSet.Entry>> changeSets = Lists.newArrayList();
+        int loaded = 0;
+        for (B changedBuild : closure.getBuilds()) {
+            if ((budget.getMaxChanges() > 0 && loaded >= budget.getMaxChanges())
+                    || (deadline != 0 && System.nanoTime() > deadline)) {
+                truncated = true;
+                break;
+            }
+            long loadStart = System.nanoTime();
+            for (ChangeLogSet<? extends ChangeLogSet.Entry> changeSet : Util.getChangeSets(changedBuild)) {
+                changeSets.add(changeSet);
+                loaded += Iterables.size(changeSet);
+            }
+            AggregationMetrics.time("changelog", loadStart);
+        }
+        if (truncated) {
+            AggregationMetrics.count("changes.truncated", 1);
+        }
+        return ChangesPage.BuildChanges.of(build, deduplicate(changeSets, type), truncated);
+    }
+
+    /**
+     * Same as {@link #changes}, but only returns the {@link ChangeRecord}s of the changes.
+     * The records of each build are read from its {@link ChangeSidecar} if it has one,
+     * so the change logs of completed builds are only parsed once.
+     */
+    static <B extends Run> ChangesPage.BuildChanges<B> records(B build, BuildClosure<B> closure,
+                                                               ChangesBudget budget, long start) {
+        RecordUnion union = RecordUnion.of(closure, budget, start);
+        return ChangesPage.BuildChanges.ofRecords(build, union.getRecords(), union.isTruncated());
+    }
+
+    /**
+     * Returns the changes of all builds in a range as one deduplicated set.
+     * The closures of all builds are walked together, so each contributing build is expanded
+     * and its changes are read only once for the whole range. The budget applies to the whole range.
+     * Like {@link #closure}, the builds are walked as {@link ACL#SYSTEM}, but only the changes
+     * of builds the current user can read are returned.
+     *
+     * @param builds the builds in the range, newest first
+     */
+    static <B extends Run> RangeChanges<B> range(final List<B> builds, final List<ChangesAggregator> aggregators,
+                                                 final Class<B> type, final AggregationContext context,
+                                                 final ChangesBudget budget) {
+        if (builds.isEmpty()) {
+            return new RangeChanges<B>(builds, 0, ImmutableList.<ChangeRecord>of(), false);
+        }
+        String last = Util.getExternalizableId((Run<?, ?>) builds.get(0));
+        String key = InFlight.key("range " + type.getName() + " " + last, builds.get(builds.size() - 1), budget);
+        return InFlight.get(key, new Callable<RangeChanges<B>>() {
+            public RangeChanges<B> call() {
+                return walkRange(builds, aggregators, type, context, budget);
+            }
+        });
+    }
+
+    private static <B extends Run> RangeChanges<B> walkRange(List<B> builds, List<ChangesAggregator> aggregators,
+                                                             Class<B> type, AggregationContext context,
+                                                             ChangesBudget budget) {
+        long start = System.nanoTime();
+        BuildClosure<B> closure;
+        SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+        try {
+            closure = new ClosureWalker<B>(new AggregatorExpander<B>(aggregators, type, context),
+                    new KnownClosures<B>(type), AllChangesAction.MAX_DEPTH, budget.getMaxBuilds(),
+                    AggregationExecutor.get(), budget.getTimeout()).walk(builds);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+        closure = new ReadableBuilds().filter(closure);
+        AggregationMetrics.time("range.closure", start);
+        AggregationMetrics.size("range.closure.size", closure.getBuilds().size());
+        RecordUnion union = RecordUnion.of(closure, budget, start);
+        return new RangeChanges<B>(builds, closure.getBuilds().size(), union.getRecords(), union.isTruncated());
+    }
+
+    /**
+     * Returns the changes, deduplicated by their {@link ChangeKey},
+     * together with the builds each change has been recorded in.
+     */
+    static <B extends Run> Multimap<ChangeLogSet.Entry, B> deduplicate(
+            Iterable<? extends ChangeLogSet<? extends ChangeLogSet.Entry>> changeSets, Class<B> type) {
+        Multimap<ChangeKey, ChangeLogSet.Entry> changes = ArrayListMultimap.create();
+        for (ChangeLogSet<? extends ChangeLogSet.Entry> changeSet : changeSets) {
+            for (ChangeLogSet.Entry entry : changeSet) {
+                changes.put(ChangeKey.of(entry), entry);
+            }
+        }
+        Multimap<ChangeLogSet.Entry, B> change2Build = HashMultimap.create();
+        for (ChangeKey changeKey : changes.keySet()) {
+            ChangeLogSet.Entry change = changes.get(changeKey).iterator().next();
+            for (ChangeLogSet.Entry entry : changes.get(changeKey)) {
+                change2Build.put(change, type.cast(entry.getParent().getRun()));
+            }
+        }
+        return change2Build;
+    }
+
+    /**
+     * @return compact copies of the changes, referring to the builds they have been recorded in by id
+     */
+    static List<ChangeRecord> records(Multimap<ChangeLogSet.Entry, ? extends Run> changes) {
+        ImmutableList.Builder<ChangeRecord> records = ImmutableList.builder();
+        for (Map.Entry<ChangeLogSet.Entry, ? extends Collection<? extends Run>> change : changes.asMap().entrySet()) {
+            ChangeRecord.Builder record = ChangeRecord.builder(change.getKey());
+            for (Run<?, ?> build : change.getValue()) {
+                record.recordedIn(build);
+            }
+            records.add(record.build());
+        }
+        return records.build();
+    }
+
+    /**
+     * Streaming union of the records of builds, deduplicated by {@link ChangeKey} as they are read.
+     * Records of a change recorded in several builds are merged into one record listing all of them.
+     */
+    private static class RecordUnion {
+        private final Map<ChangeKey, List<ChangeRecord>> changes = Maps.newLinkedHashMap();
+        private boolean truncated;
+
+        /**
+         * Reads the records of the builds of the closure until the number of changes or the time of the budget is exceeded.
+         */
+        static RecordUnion of(BuildClosure<? extends Run> closure, ChangesBudget budget, long start) {
+            RecordUnion union = new RecordUnion();
+            long deadline = budget.deadline(start);
+            union.truncated = closure.isTruncated();
+            int loaded = 0;
+            for (Run<?, ?> changedBuild : closure.getBuilds()) {
+                if ((budget.getMaxChanges() > 0 && loaded >= budget.getMaxChanges())
+                        || (deadline != 0 && System.nanoTime() > deadline)) {
+                    union.truncated = true;
+                    break;
+                }
+                loaded += union.add(ChangeSidecar.records(changedBuild));
+            }
+            if (union.truncated) {
+                AggregationMetrics.count("changes.truncated", 1);
+            }
+            return union;
+        }
+
+        private int add(List<ChangeRecord> records) {
+            for (ChangeRecord record : records) {
+                List<ChangeRecord> recorded = changes.get(record.getKey());
+                if (recorded == null) {
+                    recorded = Lists.newArrayListWithCapacity(1);
+                    changes.put(record.getKey(), recorded);
+                }
+                recorded.add(record);
+            }
+            return records.size();
+        }
+
+        List<ChangeRecord> getRecords() {
+            ImmutableList.Builder<ChangeRecord> records = ImmutableList.builder();
+            for (List<ChangeRecord> recorded : changes.values()) {
+                if (recorded.size() == 1) {
+                    records.add(recorded.get(0));
+                    continue;
+                }
+                Set<String> ids = Sets.newLinkedHashSet();
+                for (ChangeRecord record : recorded) {
+                    ids.addAll(record.getBuildIds());
+                }
+                ChangeRecord.Builder merged = ChangeRecord.builder(recorded.get(0));
+                for (String id : ids) {
+                    merged.recordedIn(id);
+                }
+                records.add(merged.build());
+            }
+            return records.build();
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+
+    private static class KnownClosures<B extends Run> implements ClosureWalker.KnownClosures<B> {
+        private final Class<B> type;
+
+        KnownClosures(Class<B> type) {
+            this.type = type;
+        }
+
+        public Collection<B> get(B build) {
+            Set<B> known = known(build, type);
+            if (known != null) {
+                AggregationMetrics.count("closure.spliced", 1);
+            }
+            return known;
+        }
+    }
+
+    private static class AggregatorExpander<B extends Run> implements ClosureWalker.Expander<B> {
+        private final List<ChangesAggregator> aggregators;
+        private final Class<B> type;
+        private final AggregationContext context;
+
+        AggregatorExpander(List<ChangesAggregator> aggregators, Class<B> type, AggregationContext context) {
+            this.aggregators = aggregators;
+            this.type = type;
+            this.context = context;
+        }
+
+        public Collection<B> expand(B build) {
+            List<B> found = Lists.newArrayList();
+            for (Run run : context.aggregate(build, aggregators)) {
+                if (type.isInstance(run)) {
+                    found.add(type.cast(run));
+                }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Multimaps;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.Sets;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Remembers the contributing builds of completed builds.
+ * <p>
+ * Entries are keyed by the externalizable id of the build and only hold the ids of the
+ * contributing builds, so the cache does not keep any build in memory.
+ * Closures are always walked as {@link hudson.security.ACL#SYSTEM}, so entries are shared between users
+ * and {@link ContributingBuilds#closure} filters them for each caller.
+ * <p>
+ * The closures a build is part of are found through a reverse index, so deleting a build does not scan the cache.
+ * Closures of completed builds do not change when other builds complete, only when one of their builds is deleted.
+ *
+ * @see Run#getExternalizableId()
+ */
+final class ContributingBuildsCache {
+
+    /**
+     * Maximal number of builds whose contributing builds are remembered.
+     */
+    public static int SIZE = Integer.getInteger(ContributingBuildsCache.class.getName() + ".size", 1000);
+
+    private static final Cache<String, List<String>> CACHE = CacheBuilder.newBuilder().maximumSize(SIZE)
+            .removalListener(new RemovalListener<String, List<String>>() {
+                public void onRemoval(RemovalNotification<String, List<String>> notification) {
+                    forgetRoot(notification.getKey(), notification.getValue());
+                }
+            }).build();
+
+    /**
+     * Keys of the cached closures by the ids of their builds.
+     * An entry may be missing if a closure is replaced concurrently, {@link #get} still notices its deleted builds then.
+     */
+    private static final SetMultimap<String, String> ROOTS = Multimaps.synchronizedSetMultimap(HashMultimap.<String, String>create());
+
+    private ContributingBuildsCache() {
+    }
+
+    /**
+     * @return the remembered contributing builds, or null if they are unknown or one of them is gone
+     */
+    static <B extends Run> Set<B> get(B build, Class<B> type) {
+        String key = Util.getExternalizableId((Run<?, ?>) build);
+        if (key == null) {
+            return null;
+        }
+        List<String> ids = CACHE.getIfPresent(key);
+        if (ids == null) {
+            return null;
+        }
+        Set<B> builds = Sets.newLinkedHashSet();
+        for (String id : ids) {
+            Run<?, ?> run = Run.fromExternalizableId(id);
+            if (run == null) {
+                CACHE.invalidate(key);
+                return null;
+            }
+            if (type.isInstance(run)) {
+                builds.add(type.cast(run));
+            }
+        }
+        return builds;
+    }
+
+    /**
+     * Remembers the contributing builds if the build is already completed.
+     */
+    static void put(Run<?, ?> build, Set<? extends Run> builds) {
+        String key = Util.getExternalizableId(build);
+        if (key == null || build.isBuilding()) {
+            return;
+        }
+        ImmutableList.Builder<String> ids = ImmutableList.builder();
+        for (Run<?, ?> run : builds) {
+            String id = Util.getExternalizableId(run);
+            if (id == null) {
+                return;
+            }
+            ids.add(id);
+        }
+        List<String> closure = ids.build();
+        for (String id : closure) {
+            ROOTS.put(id, key);
+        }
+        CACHE.put(key, closure);
+    }
+
+    /**
+     * Removes a closure which is no longer cached from the reverse index.
+     */
+    private static void forgetRoot(String key, List<String> ids) {
+        if (key == null || ids == null) {
+            return;
+        }
+        List<String> current = CACHE.getIfPresent(key);
+        for (String id : ids) {
+            if (current == null || !current.contains(id)) {
+                ROOTS.remove(id, key);
+            }
+        }
+    }
+
+    /**
+     * Forgets the contributing builds of the given build and of all builds it contributes to.
+     */
+    static void invalidate(Run<?, ?> run) {
+        String id = Util.getExternalizableId(run);
+        if (id == null) {
+            return;
+        }
+        CACHE.invalidate(id);
+        CACHE.invalidateAll(ROOTS.removeAll(id));
+    }
+
+    static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Forgets the cached closures containing a deleted build, and the changes loaded for builds the completed
+     * or deleted build contributes to.
+     */
+    @Extension
+    public static class Invalidator extends RunListener<Run> {
+        @Override
+        public void onCompleted(Run run, TaskListener listener) {
+            ChangesLoader.invalidate(run);
+        }
+
+        @Override
+        public void onDeleted(Run run) {
+            invalidate(run);
+            ChangesLoader.invalidate(run);
+            AnnotatedMessageCache.invalidate(run);
+        }
+    }
+}
@@ -33,16 +33,42 @@ import java.util.Collection;
 import java.util.Map;
 
 /**
+ * Finds the builds of upstream projects used by a build but not by its previous build, based on fingerprints.
+ * <p>
+ * Same as {@link AbstractBuild#getDependencyChanges(AbstractBuild)}, but the fingerprints of each build are only read once
+ * and upstream projects without newer builds are not looked up at all.
+ *
  * @author wolfs
+ * @see DependencySnapshots
  */
 @Extension
 public class DependencyChangesAggregator extends ChangesAggregator {
     @Override
     public Collection<AbstractBuild> aggregateBuildsWithChanges(AbstractBuild build) {
+        AbstractBuild<?, ?> previous = (AbstractBuild) build.getPreviousBuild();
+        if (previous == null) {
+            return ImmutableList.of();
+        }
+        Map<String, Integer> dependencies = DependencySnapshots.of(build);
+        if (dependencies.isEmpty()) {
+            return ImmutableList.of();
+        }
         ImmutableList.Builder<AbstractBuild> builder = ImmutableList.<AbstractBuild>builder();
-        Map<AbstractProject, AbstractBuild.DependencyChange> depChanges = build.getDependencyChanges((AbstractBuild) build.getPreviousBuild());
-        for (AbstractBuild.DependencyChange depChange : depChanges.values()) {
-            builder.addAll(depChange.getBuilds());
+        for (Map.Entry<String, Integer> previousDependency : DependencySnapshots.of(previous).entrySet()) {
+            Integer from = previousDependency.getValue();
+            Integer to = dependencies.get(previousDependency.getKey());
+            if (to == null || to <= from) {
+                continue;
+            }
+            AbstractProject<?, ?> project = Util.getInstance().getItemByFullName(previousDependency.getKey(), AbstractProject.class);
+            if (project == null) {
+                continue;
+            }
+            // the build used last may have been deleted since, its older builds still contribute
+            for (AbstractBuild<?, ?> upstream = project.getNearestOldBuild(to);
+                 upstream != null && upstream.getNumber() > from; upstream = upstream.getPreviousBuild()) {
+                builder.add(upstream);
+            }
         }
         return builder.build();
     }
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableMap;
+import hudson.Extension;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import hudson.tasks.Fingerprinter;
+
+import java.util.Map;
+
+/**
+ * Remembers which builds of upstream projects a build used, as recorded by its fingerprints.
+ * <p>
+ * Reading the fingerprints of a build loads a fingerprint record from disk for every file,
+ * so {@link DependencyChangesAggregator} looks at each build only once: the snapshot of a build
+ * is reused when the changes of the next build are calculated.
+ * Snapshots only hold project names and build numbers, so the cache does not keep any build in memory.
+ */
+final class DependencySnapshots {
+
+    /**
+     * Maximal number of builds whose upstream builds are remembered, least recently used ones are dropped first.
+     */
+    public static int SIZE = Integer.getInteger(DependencySnapshots.class.getName() + ".size", 1000);
+
+    private static final Cache<String, Map<String, Integer>> CACHE = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+
+    private DependencySnapshots() {
+    }
+
+    /**
+     * @return the numbers of the upstream builds used by the build, by the full name of their project
+     * @see Fingerprinter.FingerprintAction#getDependencies(boolean)
+     */
+    static Map<String, Integer> of(AbstractBuild<?, ?> build) {
+        String key = Util.getExternalizableId(build);
+        if (key != null) {
+            Map<String, Integer> cached = CACHE.getIfPresent(key);
+            AggregationMetrics.cache("dependencySnapshots", cached != null);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Map<String, Integer> snapshot = load(build);
+        if (key != null && !build.isBuilding()) {
+            CACHE.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    private static Map<String, Integer> load(AbstractBuild<?, ?> build) {
+        Fingerprinter.FingerprintAction action = build.getAction(Fingerprinter.FingerprintAction.class);
+        if (action == null) {
+            return ImmutableMap.of();
+        }
+        ImmutableMap.Builder<String, Integer> snapshot = ImmutableMap.builder();
+        for (Map.Entry<AbstractProject, Integer> dependency : action.getDependencies(true).entrySet()) {
+            snapshot.put(dependency.getKey().getFullName(), dependency.getValue());
+        }
+        return snapshot.build();
+    }
+
+    static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    /**
+     * Forgets all snapshots when a job is renamed or moved, since they refer to projects by name.
+     */
+    @Extension
+    public static class ProjectListener extends ItemListener {
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            CACHE.invalidateAll();
+        }
+    }
+}
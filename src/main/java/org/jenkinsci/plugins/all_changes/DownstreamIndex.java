@@ -0,0 +1,430 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import hudson.Extension;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.Cause;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.security.ACL;
+import jenkins.util.Timer;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Index from upstream builds to the builds they triggered, built from the {@link Cause.UpstreamCause}s
+ * of builds when they start.
+ * <p>
+ * When Jenkins starts, the index is rebuilt in the background from the builds of the last {@link #REBUILD_HOURS}.
+ * Builds which started while the index was not tracking them (earlier, or evicted from the index) are looked up
+ * by scanning the builds of the downstream jobs once, and the result is remembered.
+ * Scans only look at the builds started while the upstream build was running, and run as {@link ACL#SYSTEM},
+ * so the remembered ids are complete. Builds the caller cannot read are dropped when the ids are resolved.
+ */
+final class DownstreamIndex {
+
+    private static final Logger LOGGER = Logger.getLogger(DownstreamIndex.class.getName());
+
+    /**
+     * Maximal number of upstream builds in the index.
+     */
+    public static int SIZE = Integer.getInteger(DownstreamIndex.class.getName() + ".size", 10000);
+    /**
+     * Age in hours of the oldest builds indexed when Jenkins starts, 0 to not rebuild the index.
+     */
+    public static int REBUILD_HOURS = Integer.getInteger(DownstreamIndex.class.getName() + ".rebuildHours", 24);
+    /**
+     * Maximal number of jobs whose builds are loaded to find the builds triggered by an upstream build
+     * which is not in the index, 0 for no limit.
+     */
+    public static int MAX_SCANNED_JOBS = Integer.getInteger(DownstreamIndex.class.getName() + ".maxScannedJobs", 100);
+
+    /**
+     * Upstream build id to the ids of all builds it triggered.
+     * An entry is created when the upstream build starts, so it is complete as long as it is present.
+     */
+    private static final Cache<String, Set<String>> DOWNSTREAM = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+
+    /**
+     * Upstream build id and downstream job to the ids of triggered builds, for upstream builds not in {@link #DOWNSTREAM}.
+     */
+    private static final Cache<String, List<String>> SCANNED = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+
+    private static final Object REBUILD_LOCK = new Object();
+    /**
+     * Upstream build id to the ids of the builds it triggered which started while the index is rebuilt,
+     * null if it is not being rebuilt.
+     */
+    private static Multimap<String, String> startedDuringRebuild;
+
+    /**
+     * All jobs, only looked up when they are scanned.
+     */
+    private static final Iterable<Job> ALL_JOBS = new Iterable<Job>() {
+        public Iterator<Job> iterator() {
+            return Util.getInstance().getAllItems(Job.class).iterator();
+        }
+    };
+
+    private DownstreamIndex() {
+    }
+
+    /**
+     * @return the builds of the job which have been triggered by the upstream build
+     */
+    static <B extends Run> List<B> getTriggeredBuilds(Run<?, ?> upstream, Job<?, ?> job, Class<B> type) {
+        String upstreamId = Util.getExternalizableId(upstream);
+        if (upstreamId == null) {
+            return ImmutableList.of();
+        }
+        List<String> ids;
+        Set<String> downstream = DOWNSTREAM.getIfPresent(upstreamId);
+        if (downstream != null) {
+            ids = Lists.newArrayList();
+            String prefix = job.getFullName() + "#";
+            synchronized (downstream) {
+                for (String id : downstream) {
+                    if (id.startsWith(prefix)) {
+                        ids.add(id);
+                    }
+                }
+            }
+        } else {
+            String scanKey = upstreamId + "->" + job.getFullName();
+            ids = SCANNED.getIfPresent(scanKey);
+            if (ids == null) {
+                SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+                try {
+                    ids = scan(upstream, job);
+                } finally {
+                    SecurityContextHolder.setContext(previous);
+                }
+                if (!upstream.isBuilding()) {
+                    SCANNED.put(scanKey, ids);
+                }
+            }
+        }
+        return resolve(ids, type);
+    }
+
+    /**
+     * @return the ids of all builds triggered by the upstream build, or null if the upstream build is not indexed
+     */
+    static Set<String> getDownstreamIds(Run<?, ?> upstream) {
+        String upstreamId = Util.getExternalizableId(upstream);
+        Set<String> downstream = upstreamId == null ? null : DOWNSTREAM.getIfPresent(upstreamId);
+        if (downstream == null) {
+            return null;
+        }
+        synchronized (downstream) {
+            return ImmutableSet.copyOf(downstream);
+        }
+    }
+
+    /**
+     * @return all builds triggered by the upstream build
+     * @see #getTriggeredIds(Run, Iterable)
+     */
+    static <B extends Run> List<B> getTriggeredBuilds(Run<?, ?> upstream, Class<B> type) {
+        Set<String> ids;
+        SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+        try {
+            ids = getTriggeredIds(upstream, ALL_JOBS);
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+        return resolve(ids, type);
+    }
+
+    /**
+     * Without the upstream build in the index, the jobs are scanned.
+     * Jobs without a build since the upstream build started are skipped right away,
+     * the builds of at most {@link #MAX_SCANNED_JOBS} other jobs are loaded,
+     * only around the time the upstream build was running.
+     * The scan also stops when the {@link ClosureWalker.Deadline} of the walk passes.
+     * A scan which stopped early marks the walk as truncated and is not remembered.
+     *
+     * @param jobs the jobs to scan if the upstream build is not in the index
+     * @return the ids of all builds triggered by the upstream build
+     */
+    static Set<String> getTriggeredIds(Run<?, ?> upstream, Iterable<? extends Job> jobs) {
+        String upstreamId = Util.getExternalizableId(upstream);
+        if (upstreamId == null) {
+            return ImmutableSet.of();
+        }
+        Set<String> downstream = getDownstreamIds(upstream);
+        if (downstream != null) {
+            return downstream;
+        }
+        downstream = Sets.newLinkedHashSet();
+        ClosureWalker.Deadline deadline = ClosureWalker.Deadline.current();
+        long start = System.nanoTime();
+        int scanned = 0;
+        boolean complete = true;
+        for (Job<?, ?> job : jobs) {
+            Run<?, ?> first = firstStartedSince(job, upstream.getTimeInMillis());
+            if (first == null) {
+                continue;
+            }
+            if ((MAX_SCANNED_JOBS > 0 && scanned >= MAX_SCANNED_JOBS) || deadline.hasPassed()) {
+                complete = false;
+                break;
+            }
+            downstream.addAll(scan(upstream, first));
+            scanned++;
+        }
+        AggregationMetrics.time("downstream.scan", start);
+        if (!complete) {
+            deadline.exceeded();
+        } else if (!upstream.isBuilding()) {
+            DOWNSTREAM.put(upstreamId, downstream);
+        }
+        return downstream;
+    }
+
+    static <B extends Run> List<B> resolve(Iterable<String> ids, Class<B> type) {
+        List<B> builds = Lists.newArrayList();
+        for (String id : ids) {
+            Run<?, ?> run = Run.fromExternalizableId(id);
+            if (type.isInstance(run)) {
+                builds.add(type.cast(run));
+            }
+        }
+        return builds;
+    }
+
+    /**
+     * @return the ids of the builds of the job started while the upstream build was running and triggered by it
+     */
+    static List<String> scan(Run<?, ?> upstream, Job<?, ?> job) {
+        return scan(upstream, firstStartedSince(job, upstream.getTimeInMillis()));
+    }
+
+    /**
+     * @param first the oldest build of the job started since the upstream build, may be null
+     */
+    private static List<String> scan(Run<?, ?> upstream, Run<?, ?> first) {
+        long end = upstream.isBuilding() ? Long.MAX_VALUE : upstream.getTimeInMillis() + upstream.getDuration();
+        ImmutableList.Builder<String> ids = ImmutableList.builder();
+        for (Run<?, ?> candidate = first;
+             candidate != null && candidate.getTimeInMillis() < end; candidate = candidate.getNextBuild()) {
+            for (Cause.UpstreamCause cause : upstreamCauses(candidate)) {
+                if (cause.pointsTo(upstream)) {
+                    ids.add(Util.getExternalizableId(candidate));
+                    break;
+                }
+            }
+        }
+        return ids.build();
+    }
+
+    /**
+     * Searches the build numbers of the job for the oldest build started since the given time.
+     * Builds are started in the order of their numbers, so only a logarithmic number of older builds is loaded.
+     *
+     * @return the oldest build started since the given time, or null if there is none
+     */
+    private static Run<?, ?> firstStartedSince(Job<?, ?> job, long start) {
+        Run<?, ?> last = job.getLastBuild();
+        if (last == null || last.getTimeInMillis() < start) {
+            return null;
+        }
+        int low = 1;
+        int high = last.getNumber();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Run<?, ?> build = job.getNearestBuild(middle);
+            if (build == null || build.getTimeInMillis() >= start) {
+                high = middle;
+            } else {
+                low = build.getNumber() + 1;
+            }
+        }
+        return job.getNearestBuild(low);
+    }
+
+    private static List<Cause.UpstreamCause> upstreamCauses(Run<?, ?> run) {
+        List<Cause.UpstreamCause> upstreamCauses = Lists.newArrayList();
+        for (Cause cause : run.getCauses()) {
+            if (cause instanceof Cause.UpstreamCause) {
+                upstreamCauses.add((Cause.UpstreamCause) cause);
+            }
+        }
+        return upstreamCauses;
+    }
+
+    private static String upstreamId(Cause.UpstreamCause cause) {
+        return cause.getUpstreamProject() + "#" + cause.getUpstreamBuild();
+    }
+
+    /**
+     * Rebuilds the index in the background, so upstream builds started before Jenkins was restarted
+     * are not looked up by scanning all jobs.
+     */
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void rebuildInBackground() {
+        if (REBUILD_HOURS <= 0) {
+            return;
+        }
+        final long since = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(REBUILD_HOURS);
+        Timer.get().submit(new Runnable() {
+            public void run() {
+                SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+                try {
+                    rebuild(ALL_JOBS, since);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Failed to rebuild the index of downstream builds", e);
+                } finally {
+                    SecurityContextHolder.setContext(previous);
+                }
+            }
+        });
+    }
+
+    /**
+     * Indexes the builds of the jobs started since the given time.
+     * The entries are only added once they are complete, until then the builds are still scanned for.
+     * Builds starting meanwhile are added to them as well.
+     *
+     * @param since the start of the oldest build to index, in milliseconds since the epoch
+     */
+    static void rebuild(Iterable<? extends Job> jobs, long since) {
+        synchronized (REBUILD_LOCK) {
+            startedDuringRebuild = LinkedHashMultimap.create();
+        }
+        long start = System.nanoTime();
+        try {
+            Map<String, Set<String>> downstream = Maps.newLinkedHashMap();
+            Multimap<String, String> triggered = LinkedHashMultimap.create();
+            for (Job<?, ?> job : jobs) {
+                for (Run<?, ?> run = firstStartedSince(job, since); run != null; run = run.getNextBuild()) {
+                    String id = Util.getExternalizableId(run);
+                    downstream.put(id, Sets.<String>newLinkedHashSet());
+                    for (Cause.UpstreamCause cause : upstreamCauses(run)) {
+                        triggered.put(upstreamId(cause), id);
+                    }
+                }
+            }
+            for (Map.Entry<String, String> entry : triggered.entries()) {
+                Set<String> ids = downstream.get(entry.getKey());
+                if (ids != null) {
+                    ids.add(entry.getValue());
+                }
+            }
+            for (Map.Entry<String, Set<String>> entry : downstream.entrySet()) {
+                Set<String> indexed = DOWNSTREAM.asMap().putIfAbsent(entry.getKey(), entry.getValue());
+                if (indexed != null) {
+                    synchronized (indexed) {
+                        indexed.addAll(entry.getValue());
+                    }
+                }
+            }
+        } finally {
+            synchronized (REBUILD_LOCK) {
+                for (Map.Entry<String, String> entry : startedDuringRebuild.entries()) {
+                    add(entry.getKey(), entry.getValue());
+                }
+                startedDuringRebuild = null;
+            }
+            AggregationMetrics.time("downstream.rebuild", start);
+        }
+    }
+
+    private static void add(String upstreamId, String id) {
+        Set<String> downstream = DOWNSTREAM.getIfPresent(upstreamId);
+        if (downstream != null) {
+            synchronized (downstream) {
+                downstream.add(id);
+            }
+        }
+    }
+
+    static void clear() {
+        DOWNSTREAM.invalidateAll();
+        SCANNED.invalidateAll();
+    }
+
+    @Extension
+    public static class Listener extends RunListener<Run> {
+        @Override
+        public void onStarted(Run run, TaskListener listener) {
+            String id = Util.getExternalizableId(run);
+            if (id == null) {
+                return;
+            }
+            DOWNSTREAM.put(id, Sets.<String>newLinkedHashSet());
+            List<Cause.UpstreamCause> causes = upstreamCauses(run);
+            for (Cause.UpstreamCause cause : causes) {
+                add(upstreamId(cause), id);
+            }
+            synchronized (REBUILD_LOCK) {
+                if (startedDuringRebuild != null) {
+                    for (Cause.UpstreamCause cause : causes) {
+                        startedDuringRebuild.put(upstreamId(cause), id);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void onDeleted(Run run) {
+            String id = Util.getExternalizableId(run);
+            if (id == null) {
+                return;
+            }
+            DOWNSTREAM.invalidate(id);
+            for (Cause.UpstreamCause cause : upstreamCauses(run)) {
+                Set<String> downstream = DOWNSTREAM.getIfPresent(upstreamId(cause));
+                if (downstream != null) {
+                    synchronized (downstream) {
+                        downstream.remove(id);
+                    }
+                }
+                SCANNED.invalidate(upstreamId(cause) + "->" + run.getParent().getFullName());
+            }
+        }
+    }
+}
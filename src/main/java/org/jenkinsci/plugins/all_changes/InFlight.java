@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.Run;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Lets concurrent callers asking for the same calculation wait for the first of them to do it, and share its result.
+ * <p>
+ * Only running calculations are remembered. Once a calculation is done, the next caller starts a new one,
+ * so results are never kept longer than the caches keep them.
+ * <p>
+ * Keys include the name of the current user, so only callers with the same permissions share a result.
+ * Calculations done as {@link hudson.security.ACL#SYSTEM}, like the walks of contributing builds,
+ * are shared between all users, who filter the shared result by their own permissions.
+ */
+final class InFlight {
+
+    private static final ConcurrentMap<String, FutureTask<?>> RUNNING = new ConcurrentHashMap<String, FutureTask<?>>();
+
+    private InFlight() {
+    }
+
+    /**
+     * @return the key of a calculation for a build with the given budget done by the current user,
+     * or null if the build has no id
+     */
+    static String key(String calculation, Run<?, ?> build, ChangesBudget budget) {
+        String id = Util.getExternalizableId(build);
+        return id == null ? null : key(calculation + " " + id + " " + budget.key());
+    }
+
+    /**
+     * @param calculation identifies the calculation and all its parameters
+     * @return the key of the calculation done by the current user
+     */
+    static String key(String calculation) {
+        return calculation + " " + Util.getAuthenticationName();
+    }
+
+    /**
+     * Runs the calculation on the calling thread, unless a calculation with the same key is already running.
+     * In that case, waits for it and returns its result.
+     *
+     * @param key identifies the calculation and all its parameters, null to always run the calculation
+     */
+    @SuppressWarnings("unchecked")
+    static <V> V get(String key, Callable<V> calculation) {
+        FutureTask<V> task = new FutureTask<V>(calculation);
+        if (key == null) {
+            task.run();
+            return result(task);
+        }
+        FutureTask<?> running = RUNNING.putIfAbsent(key, task);
+        AggregationMetrics.cache("inFlight", running != null);
+        if (running != null) {
+            return (V) result(running);
+        }
+        try {
+            task.run();
+        } finally {
+            RUNNING.remove(key, task);
+        }
+        return result(task);
+    }
+
+    private static <V> V result(FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
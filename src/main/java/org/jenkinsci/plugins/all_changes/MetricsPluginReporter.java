@@ -0,0 +1,58 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import jenkins.metrics.api.Metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the {@link AggregationMetrics} to the registry of the metrics plugin.
+ * <p>
+ * Kept apart from {@link AggregationMetrics}, so its classes are only loaded if the optional metrics plugin is installed.
+ */
+final class MetricsPluginReporter {
+
+    private static final String PREFIX = "all-changes.";
+
+    private MetricsPluginReporter() {
+    }
+
+    static void time(String name, long nanos) {
+        Metrics.metricRegistry().timer(PREFIX + name).update(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    static void size(String name, long value) {
+        Metrics.metricRegistry().histogram(PREFIX + name).update(value);
+    }
+
+    static void count(String name, long count) {
+        Metrics.metricRegistry().counter(PREFIX + name).inc(count);
+    }
+
+    static void remove(String name) {
+        Metrics.metricRegistry().remove(PREFIX + name);
+    }
+}
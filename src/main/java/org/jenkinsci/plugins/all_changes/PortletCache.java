@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import hudson.Extension;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import hudson.security.ACL;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Remembers the first page of changes shown by {@link AllChangesPortlet}s, so dashboards are not calculated on every view.
+ * <p>
+ * Pages are keyed by the job, the number of its last completed build and the page size,
+ * so a page is calculated again once a new build of the job completes.
+ * Pages are calculated as {@link ACL#SYSTEM} and shared between all viewers,
+ * every viewer only gets the builds and changes it can read, see {@link ReadableBuilds}.
+ * Pages with builds which are still running or whose changes are still being loaded are not shared.
+ * Pages are kept as {@link ChangeRecord}s and build numbers, so the cache does not keep any build in memory.
+ */
+final class PortletCache {
+
+    /**
+     * Maximal number of pages remembered.
+     */
+    public static int SIZE = Integer.getInteger(PortletCache.class.getName() + ".size", 100);
+
+    private static final Cache<String, CachedPage> CACHE = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+
+    private PortletCache() {
+    }
+
+    /**
+     * @param collect calculates the first page of the job, called as {@link ACL#SYSTEM} if the page is not remembered
+     * @return the first page of the job with the builds and changes the current user can read
+     */
+    static <B extends Run> ChangesPage<B> get(Job<?, ?> job, int limit, Class<B> type, Supplier<ChangesPage<B>> collect) {
+        return get(job, limit, type, collect, new ReadableBuilds());
+    }
+
+    static <B extends Run> ChangesPage<B> get(Job<?, ?> job, int limit, Class<B> type, Supplier<ChangesPage<B>> collect,
+                                              ReadableBuilds readable) {
+        String key = key(job, limit);
+        ChangesPage<B> page = cached(job, key, type);
+        AggregationMetrics.cache("portlet", page != null);
+        if (page == null) {
+            SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+            try {
+                page = collect.get();
+            } finally {
+                SecurityContextHolder.setContext(previous);
+            }
+            put(key, page);
+        }
+        return filter(page, readable);
+    }
+
+    /**
+     * @return the remembered page, or null if there is none or one of its builds is gone
+     */
+    private static <B extends Run> ChangesPage<B> cached(Job<?, ?> job, String key, Class<B> type) {
+        CachedPage cached = CACHE.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        ImmutableList.Builder<ChangesPage.BuildChanges<B>> builds = ImmutableList.builder();
+        for (CachedBuild cachedBuild : cached.builds) {
+            Run<?, ?> build = job.getBuildByNumber(cachedBuild.number);
+            if (!type.isInstance(build)) {
+                CACHE.invalidate(key);
+                return null;
+            }
+            builds.add(ChangesPage.BuildChanges.ofRecords(type.cast(build), cachedBuild.records, cachedBuild.truncated));
+        }
+        return new ChangesPage<B>(builds.build(), cached.nextCursor);
+    }
+
+    /**
+     * Remembers the page if all its builds are completed and their changes are known.
+     * Only the numbers of the builds and the records of their changes are kept.
+     */
+    private static void put(String key, ChangesPage<?> page) {
+        if (!page.isLoaded()) {
+            return;
+        }
+        ImmutableList.Builder<CachedBuild> builds = ImmutableList.builder();
+        for (ChangesPage.BuildChanges<?> build : page.getBuilds()) {
+            Run<?, ?> run = (Run<?, ?>) build.getBuild();
+            if (run.isBuilding()) {
+                return;
+            }
+            builds.add(new CachedBuild(run.getNumber(), build.getRecords(), build.isTruncated()));
+        }
+        CACHE.put(key, new CachedPage(builds.build(), page.getNextCursor()));
+    }
+
+    /**
+     * @return the page with the changes the user can read, without the builds which have no such changes left
+     */
+    private static <B extends Run> ChangesPage<B> filter(ChangesPage<B> page, ReadableBuilds readable) {
+        ImmutableList.Builder<ChangesPage.BuildChanges<B>> builds = ImmutableList.builder();
+        for (ChangesPage.BuildChanges<B> build : page.getBuilds()) {
+            if (!readable.canRead((Run<?, ?>) build.getBuild())) {
+                continue;
+            }
+            if (build.isPending()) {
+                builds.add(build);
+                continue;
+            }
+            List<ChangeRecord> records = readable.filter(build.getRecords());
+            if (!records.isEmpty()) {
+                builds.add(ChangesPage.BuildChanges.ofRecords(build.getBuild(), records, build.isTruncated()));
+            }
+        }
+        return new ChangesPage<B>(builds.build(), page.getNextCursor());
+    }
+
+    private static String key(Job<?, ?> job, int limit) {
+        Run<?, ?> lastCompleted = job.getLastCompletedBuild();
+        return prefix(job) + (lastCompleted == null ? 0 : lastCompleted.getNumber()) + "/" + limit;
+    }
+
+    private static String prefix(Job<?, ?> job) {
+        return job.getFullName() + "#";
+    }
+
+    /**
+     * Forgets all pages of the job.
+     */
+    static void invalidate(Job<?, ?> job) {
+        String prefix = prefix(job);
+        Iterator<String> keys = CACHE.asMap().keySet().iterator();
+        while (keys.hasNext()) {
+            if (keys.next().startsWith(prefix)) {
+                keys.remove();
+            }
+        }
+    }
+
+    static void clear() {
+        CACHE.invalidateAll();
+    }
+
+    private static class CachedPage {
+        private final List<CachedBuild> builds;
+        private final Integer nextCursor;
+
+        CachedPage(List<CachedBuild> builds, Integer nextCursor) {
+            this.builds = builds;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    private static class CachedBuild {
+        private final int number;
+        private final List<ChangeRecord> records;
+        private final boolean truncated;
+
+        CachedBuild(int number, List<ChangeRecord> records, boolean truncated) {
+            this.number = number;
+            this.records = records;
+            this.truncated = truncated;
+        }
+    }
+
+    @Extension
+    public static class Invalidator extends RunListener<Run> {
+        @Override
+        public void onCompleted(Run run, TaskListener listener) {
+            invalidate(run.getParent());
+        }
+
+        @Override
+        public void onDeleted(Run run) {
+            invalidate(run.getParent());
+        }
+    }
+}
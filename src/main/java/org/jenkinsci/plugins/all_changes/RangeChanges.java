@@ -0,0 +1,78 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import hudson.model.Run;
+
+import java.util.List;
+
+/**
+ * The changes of all builds in a range, deduplicated across the whole range, e.g. for release notes.
+ *
+ * @param <B> the build type
+ * @see ContributingBuilds#range
+ */
+public class RangeChanges<B extends Run> {
+
+    private final List<B> builds;
+    private final int contributingBuilds;
+    private final List<ChangeRecord> records;
+    private final boolean truncated;
+
+    RangeChanges(List<B> builds, int contributingBuilds, List<ChangeRecord> records, boolean truncated) {
+        this.builds = ImmutableList.copyOf(builds);
+        this.contributingBuilds = contributingBuilds;
+        this.records = records;
+        this.truncated = truncated;
+    }
+
+    /**
+     * @return the builds in the range, newest first
+     */
+    public List<B> getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return the number of builds contributing to any build in the range, including the builds of the range
+     */
+    public int getContributingBuilds() {
+        return contributingBuilds;
+    }
+
+    /**
+     * @return each change of the range once, with all builds it has been recorded in
+     */
+    public List<ChangeRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * @return whether only part of the changes is known, because a {@link ChangesBudget} has been exceeded
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.security.ACL;
+import jenkins.model.Jenkins;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Filters what has been calculated with full permissions down to the builds the current user can read.
+ * <p>
+ * Contributing builds are always walked as {@link ACL#SYSTEM}, so the results can be cached and shared
+ * between users. Every caller then only gets the builds of the jobs it can read.
+ * An instance remembers the permission of each job it has checked, so it should only be used for one request.
+ */
+final class ReadableBuilds {
+
+    private final Jenkins jenkins;
+    private final Map<String, Boolean> jobs = Maps.newHashMap();
+
+    ReadableBuilds() {
+        this(Jenkins.getInstance());
+    }
+
+    /**
+     * @param jenkins looks up the jobs for the current user, null to read all builds
+     */
+    ReadableBuilds(Jenkins jenkins) {
+        this.jenkins = jenkins;
+    }
+
+    boolean canRead(Run<?, ?> build) {
+        Job<?, ?> job = build.getParent();
+        return job == null || canReadJob(job.getFullName());
+    }
+
+    /**
+     * @param buildId the externalizable id of a build
+     */
+    boolean canRead(String buildId) {
+        int hash = buildId.lastIndexOf('#');
+        return hash < 0 || canReadJob(buildId.substring(0, hash));
+    }
+
+    private boolean canReadJob(String fullName) {
+        if (jenkins == null) {
+            return true;
+        }
+        Boolean readable = jobs.get(fullName);
+        if (readable == null) {
+            readable = jenkins.getItemByFullName(fullName, Job.class) != null;
+            jobs.put(fullName, readable);
+        }
+        return readable;
+    }
+
+    /**
+     * @return the closure without the builds the current user cannot read
+     */
+    <B extends Run> BuildClosure<B> filter(BuildClosure<B> closure) {
+        Set<B> builds = Sets.newLinkedHashSet();
+        for (B build : closure.getBuilds()) {
+            if (canRead((Run<?, ?>) build)) {
+                builds.add(build);
+            }
+        }
+        if (builds.size() == closure.getBuilds().size()) {
+            return closure;
+        }
+        return new BuildClosure<B>(builds, closure.getExpansions(), closure.isTruncated());
+    }
+
+    /**
+     * @return the records recorded in a build the current user can read,
+     * each only referring to the builds the current user can read
+     */
+    List<ChangeRecord> filter(List<ChangeRecord> records) {
+        ImmutableList.Builder<ChangeRecord> readable = ImmutableList.builder();
+        for (ChangeRecord record : records) {
+            List<String> ids = Lists.newArrayList();
+            for (String id : record.getBuildIds()) {
+                if (canRead(id)) {
+                    ids.add(id);
+                }
+            }
+            if (ids.size() == record.getBuildIds().size()) {
+                readable.add(record);
+            } else if (!ids.isEmpty()) {
+                ChangeRecord.Builder filtered = ChangeRecord.builder(record);
+                for (String id : ids) {
+                    filtered.recordedIn(id);
+                }
+                readable.add(filtered.build());
+            }
+        }
+        return readable.build();
+    }
+}
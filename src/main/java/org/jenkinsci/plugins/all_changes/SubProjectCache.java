@@ -0,0 +1,101 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.Maps;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.AbstractProject;
+import hudson.model.Item;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers the blocking sub-projects found by {@link SubProjectChangesAggregator} until the configuration changes.
+ * <p>
+ * Kept apart from the aggregator, so the listeners do not depend on the optional parameterized-trigger plugin.
+ */
+final class SubProjectCache {
+
+    /**
+     * Full names of the blocking sub-projects, by the full name of the triggering project.
+     */
+    private static final ConcurrentMap<String, List<String>> SUB_PROJECTS = Maps.newConcurrentMap();
+
+    private SubProjectCache() {
+    }
+
+    static List<String> get(AbstractProject<?, ?> project) {
+        return SUB_PROJECTS.get(project.getFullName());
+    }
+
+    static void put(AbstractProject<?, ?> project, List<String> subProjects) {
+        SUB_PROJECTS.put(project.getFullName(), subProjects);
+    }
+
+    /**
+     * Forgets the sub-projects of a project when its configuration is saved.
+     */
+    @Extension
+    public static class ConfigurationListener extends SaveableListener {
+        @Override
+        public void onChange(Saveable o, XmlFile file) {
+            if (o instanceof AbstractProject) {
+                SUB_PROJECTS.remove(((AbstractProject) o).getFullName());
+            }
+        }
+    }
+
+    /**
+     * Forgets all sub-projects when a job is created, renamed, moved or deleted, since any project might trigger it.
+     * Sub-projects which do not exist are left out, so a new job may be a sub-project which was missing before.
+     */
+    @Extension
+    public static class ProjectListener extends ItemListener {
+        @Override
+        public void onCreated(Item item) {
+            SUB_PROJECTS.clear();
+        }
+
+        @Override
+        public void onUpdated(Item item) {
+            SUB_PROJECTS.remove(item.getFullName());
+        }
+
+        @Override
+        public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+            SUB_PROJECTS.clear();
+        }
+
+        @Override
+        public void onDeleted(Item item) {
+            SUB_PROJECTS.clear();
+        }
+    }
+}
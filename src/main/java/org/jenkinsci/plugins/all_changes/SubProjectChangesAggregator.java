@@ -31,13 +31,13 @@ import hudson.Extension;
 import hudson.Plugin;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
-import hudson.model.Cause;
 import hudson.model.FreeStyleProject;
 import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
 import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import hudson.security.ACL;
 import hudson.tasks.Builder;
-import hudson.util.RunList;
-import jenkins.model.Jenkins;
+import org.acegisecurity.context.SecurityContext;
+import org.acegisecurity.context.SecurityContextHolder;
 
 import java.util.Collection;
 import java.util.List;
@@ -48,38 +48,72 @@ import java.util.Set;
  */
 @Extension
 public class SubProjectChangesAggregator extends ChangesAggregator {
+
+    private static volatile Boolean parameterizedTriggerInstalled;
+
     @Override
     public Collection<AbstractBuild> aggregateBuildsWithChanges(AbstractBuild build) {
-        Plugin parameterizedTrigger = Util.getInstance().getPlugin("parameterized-trigger");
-        if (parameterizedTrigger == null) {
+        if (!isParameterizedTriggerInstalled()) {
             return ImmutableList.of();
         }
 
         AbstractProject project = build.getProject();
-        Set<AbstractProject<?, ?>> subProjects = Sets.newHashSet();
         Set<AbstractBuild> builds = Sets.newHashSet();
         if (project instanceof FreeStyleProject) {
-            subProjects.addAll(getSubProjects((FreeStyleProject) project));
-            builds.addAll(getTriggeredBuilds(build, subProjects));
+            builds.addAll(getTriggeredBuilds(build, getSubProjects((FreeStyleProject) project)));
         }
 
         return builds;
     }
 
+    private static boolean isParameterizedTriggerInstalled() {
+        Boolean installed = parameterizedTriggerInstalled;
+        if (installed == null) {
+            Plugin parameterizedTrigger = Util.getInstance().getPlugin("parameterized-trigger");
+            installed = parameterizedTrigger != null;
+            parameterizedTriggerInstalled = installed;
+        }
+        return installed;
+    }
+
     private List<AbstractBuild> getTriggeredBuilds(AbstractBuild build, Collection<AbstractProject<?, ?>> subProjects) {
         List<AbstractBuild> builds = Lists.newArrayList();
         for (AbstractProject<?, ?> subProject : subProjects) {
-            RunList<? extends AbstractBuild<?, ?>> subBuildsDuringBuild = subProject.getBuilds().byTimestamp(build.getTimeInMillis(), build.getTimeInMillis() + build.getDuration());
-            for (AbstractBuild<?, ?> candidate : subBuildsDuringBuild) {
-                if (isSubBuild(build, candidate)) {
-                    builds.add(candidate);
+            builds.addAll(DownstreamIndex.getTriggeredBuilds(build, subProject, AbstractBuild.class));
+        }
+        return builds;
+    }
+
+    private Set<AbstractProject<?, ?>> getSubProjects(FreeStyleProject project) {
+        List<String> names = SubProjectCache.get(project);
+        if (names == null) {
+            ImmutableList.Builder<String> builder = ImmutableList.builder();
+            SecurityContext previous = ACL.impersonate(ACL.SYSTEM);
+            try {
+                for (AbstractProject<?, ?> subProject : resolveSubProjects(project)) {
+                    builder.add(subProject.getFullName());
                 }
+            } finally {
+                SecurityContextHolder.setContext(previous);
             }
+            names = builder.build();
+            SubProjectCache.put(project, names);
         }
-        return builds;
+        Set<AbstractProject<?, ?>> subProjects = Sets.newLinkedHashSet();
+        for (String name : names) {
+            AbstractProject<?, ?> subProject = Util.getInstance().getItemByFullName(name, AbstractProject.class);
+            if (subProject != null) {
+                subProjects.add(subProject);
+            }
+        }
+        return subProjects;
     }
 
-    private List<AbstractProject<?, ?>> getSubProjects(FreeStyleProject project) {
+    /**
+     * Resolves the sub-projects with the permissions of the caller, which should be {@link ACL#SYSTEM}
+     * for the result to be shared in the {@link SubProjectCache}.
+     */
+    private List<AbstractProject<?, ?>> resolveSubProjects(FreeStyleProject project) {
         List<AbstractProject<?, ?>> subProjects = Lists.newArrayList();
         List<Builder> builders = project.getBuilders();
         for (Builder builder : builders) {
@@ -96,17 +130,4 @@ public class SubProjectChangesAggregator extends ChangesAggregator {
         }
         return subProjects;
     }
-
-    private boolean isSubBuild(AbstractBuild build, AbstractBuild<?, ?> subBuild) {
-        List<Cause> causes = subBuild.getCauses();
-        for (Cause cause : causes) {
-            if (cause instanceof Cause.UpstreamCause) {
-                Cause.UpstreamCause upstreamCause = (Cause.UpstreamCause) cause;
-                if (upstreamCause.pointsTo(build)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
 }
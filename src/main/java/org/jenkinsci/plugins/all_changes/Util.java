@@ -23,7 +23,15 @@
  */
 package org.jenkinsci.plugins.all_changes;
 
+import com.google.common.collect.ImmutableList;
+import hudson.model.AbstractBuild;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.scm.ChangeLogSet;
 import jenkins.model.Jenkins;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.util.List;
 
 /**
  * Created by suresh on 6/5/2016.
@@ -37,4 +45,35 @@ public class Util {
         }
         return instance;
     }
+
+    /**
+     * Same as {@link Run#getExternalizableId()}, but returns null for runs without a parent.
+     */
+    public static String getExternalizableId(Run<?, ?> run) {
+        Job<?, ?> parent = run.getParent();
+        if (parent == null) {
+            return null;
+        }
+        return parent.getFullName() + "#" + run.getNumber();
+    }
+
+    /**
+     * @return the name of the current user, part of the key of everything remembered for one user only
+     */
+    public static String getAuthenticationName() {
+        return Jenkins.getAuthentication().getName();
+    }
+
+    /**
+     * @return the change sets of a freestyle build or a pipeline run
+     */
+    public static List<ChangeLogSet<? extends ChangeLogSet.Entry>> getChangeSets(Run<?, ?> run) {
+        if (run instanceof AbstractBuild) {
+            return ImmutableList.<ChangeLogSet<? extends ChangeLogSet.Entry>>of(((AbstractBuild<?, ?>) run).getChangeSet());
+        }
+        if (run instanceof WorkflowRun) {
+            return ((WorkflowRun) run).getChangeSets();
+        }
+        return ImmutableList.of();
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import hudson.model.AbstractBuild;
+import hudson.model.Job;
+import hudson.model.Run;
+import hudson.model.TopLevelItem;
+import hudson.model.View;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The newest changes of all jobs of a view, merged into one feed, newest build first.
+ * <p>
+ * The builds of each job are merged by their start time, using a priority queue holding the newest build
+ * of each job which has not been merged yet. The changes of a build are only calculated once it is taken from the queue,
+ * so older builds are never looked at once the feed has enough changes. The number of builds looked at is bounded
+ * by {@link #MAX_BUILDS}, so a view whose builds rarely have changes does not walk the whole history of all its jobs.
+ * All jobs share one {@link AggregationContext}, so upstream builds common to several jobs are only expanded once,
+ * and a change picked up by several jobs is only shown for the newest build.
+ */
+public final class ViewChanges {
+
+    /**
+     * Number of changes shown for a view if no other number is given.
+     */
+    public static int LIMIT = Integer.getInteger(ViewChanges.class.getName() + ".limit", 50);
+
+    /**
+     * Maximal number of builds looked at for one feed (0 = no limit).
+     */
+    public static int MAX_BUILDS = Integer.getInteger(ViewChanges.class.getName() + ".maxBuilds", 200);
+
+    private static final Comparator<Run<?, ?>> NEWEST_FIRST = new Comparator<Run<?, ?>>() {
+        public int compare(Run<?, ?> a, Run<?, ?> b) {
+            if (a.getTimeInMillis() != b.getTimeInMillis()) {
+                return a.getTimeInMillis() > b.getTimeInMillis() ? -1 : 1;
+            }
+            return a.getParent().getFullName().compareTo(b.getParent().getFullName());
+        }
+    };
+
+    private final List<BuildRecords> builds;
+    private final boolean more;
+
+    private ViewChanges(List<BuildRecords> builds, boolean more) {
+        this.builds = builds;
+        this.more = more;
+    }
+
+    /**
+     * @return the jobs of the view, including the jobs in folders of the view
+     */
+    static Set<Job<?, ?>> jobs(View view) {
+        Set<Job<?, ?>> jobs = Sets.newLinkedHashSet();
+        for (TopLevelItem item : view.getItems()) {
+            for (Job<?, ?> job : item.getAllJobs()) {
+                jobs.add(job);
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * @param limit the number of changes after which the feed stops
+     */
+    static ViewChanges of(Collection<? extends Job<?, ?>> jobs, int limit) {
+        final AggregationContext context = new AggregationContext();
+        return of(jobs, limit, MAX_BUILDS, new Function<Run<?, ?>, ChangesPage.BuildChanges<?>>() {
+            public ChangesPage.BuildChanges<?> apply(Run<?, ?> build) {
+                return changes(build, context);
+            }
+        });
+    }
+
+    /**
+     * @param limit the number of changes after which the feed stops
+     * @param maxBuilds the number of builds after which the feed stops (0 = no limit)
+     * @param changes calculates the changes of a build, {@code null} if the build has no all changes action
+     */
+    static ViewChanges of(Collection<? extends Job<?, ?>> jobs, int limit, int maxBuilds,
+                          Function<Run<?, ?>, ChangesPage.BuildChanges<?>> changes) {
+        long start = System.nanoTime();
+        PriorityQueue<Run<?, ?>> heads = new PriorityQueue<Run<?, ?>>(Math.max(1, jobs.size()), NEWEST_FIRST);
+        for (Job<?, ?> job : jobs) {
+            Run<?, ?> last = job.getLastBuild();
+            if (last != null) {
+                heads.add(last);
+            }
+        }
+        Set<ChangeKey> seen = Sets.newHashSet();
+        ImmutableList.Builder<BuildRecords> builds = ImmutableList.builder();
+        int found = 0;
+        int examined = 0;
+        while (!heads.isEmpty() && found < limit && (maxBuilds <= 0 || examined < maxBuilds)) {
+            Run<?, ?> build = heads.poll();
+            examined++;
+            Run<?, ?> previous = build.getPreviousBuild();
+            if (previous != null) {
+                heads.add(previous);
+            }
+            AllChangesRecord record = build.getAction(AllChangesRecord.class);
+            if (record != null && !record.hasChanges()) {
+                continue;
+            }
+            ChangesPage.BuildChanges<?> buildChanges = changes.apply(build);
+            if (buildChanges == null) {
+                continue;
+            }
+            List<ChangeRecord> records = Lists.newArrayList();
+            for (ChangeRecord change : buildChanges.getRecords()) {
+                if (found < limit && seen.add(change.getKey())) {
+                    records.add(change);
+                    found++;
+                }
+            }
+            if (!records.isEmpty()) {
+                builds.add(new BuildRecords(build, records, buildChanges.isTruncated()));
+            }
+        }
+        AggregationMetrics.time("view", start);
+        AggregationMetrics.size("view.jobs", jobs.size());
+        AggregationMetrics.size("view.builds", examined);
+        return new ViewChanges(builds.build(), !heads.isEmpty());
+    }
+
+    private static ChangesPage.BuildChanges<?> changes(Run<?, ?> build, AggregationContext context) {
+        if (build instanceof AbstractBuild) {
+            AbstractBuild abstractBuild = (AbstractBuild) build;
+            return new AllChangesAction(abstractBuild.getProject()).getBuildChanges(abstractBuild, context);
+        }
+        if (build instanceof WorkflowRun) {
+            WorkflowRun workflowRun = (WorkflowRun) build;
+            return new AllChangesWorkflowAction(workflowRun.getParent()).getBuildChanges(workflowRun, context);
+        }
+        return null;
+    }
+
+    /**
+     * @return the builds with changes, newest first
+     */
+    public List<BuildRecords> getBuilds() {
+        return builds;
+    }
+
+    /**
+     * @return whether the feed stopped before looking at all builds, because it had enough changes
+     *         or looked at {@link #MAX_BUILDS} builds
+     */
+    public boolean isMore() {
+        return more;
+    }
+
+    /**
+     * The changes of a build not shown for any newer build of the feed.
+     */
+    public static final class BuildRecords {
+        private final Run<?, ?> build;
+        private final List<ChangeRecord> records;
+        private final boolean truncated;
+
+        BuildRecords(Run<?, ?> build, List<ChangeRecord> records, boolean truncated) {
+            this.build = build;
+            this.records = ImmutableList.copyOf(records);
+            this.truncated = truncated;
+        }
+
+        public Run<?, ?> getBuild() {
+            return build;
+        }
+
+        public List<ChangeRecord> getRecords() {
+            return records;
+        }
+
+        /**
+         * @return whether only part of the changes of the build is known, because a {@link ChangesBudget} has been exceeded
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes.AllChangesViewAction
+
+import hudson.model.Run
+import org.jenkinsci.plugins.all_changes.ChangeRecord
+import org.jvnet.localizer.LocaleProvider
+
+import java.text.DateFormat
+
+st = namespace("jelly:stapler")
+
+def changes = my.changes
+
+if (changes.builds.empty) {
+    text(_("No changes in any of the builds."))
+}
+for (buildRecords in changes.builds) {
+    showBuildChanges(buildRecords.build, buildRecords.records, buildRecords.truncated)
+}
+if (changes.more) {
+    p(_("more"))
+}
+
+private showBuildChanges(Run build, List<ChangeRecord> records, boolean truncated) {
+    h2() {
+        a(href: "${rootURL}/${build.parent.url}") { text(build.parent.fullDisplayName) }
+        st.nbsp()
+        a(href: "${rootURL}/${build.url}changes",
+                """${build.displayName}  (${
+                    DateFormat.getDateTimeInstance(
+                            DateFormat.MEDIUM,
+                            DateFormat.MEDIUM,
+                            LocaleProvider.locale).format(build.timestamp.time)})""")
+    }
+    set("changesBuild", build)
+    ul() {
+        for (record in records) {
+            li() {
+                st.include(page: "record.groovy", it: record)
+            }
+        }
+    }
+    if (truncated) {
+        p(class: "warning", _("truncated"))
+    }
+}
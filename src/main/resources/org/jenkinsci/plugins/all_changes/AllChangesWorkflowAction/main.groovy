@@ -22,10 +22,11 @@
  * THE SOFTWARE.
  */
 
-import com.google.common.collect.Multimap
 import hudson.Functions
-import hudson.scm.ChangeLogSet
+import hudson.model.Run
 import org.jenkinsci.plugins.workflow.job.WorkflowRun
+import org.jenkinsci.plugins.all_changes.AggregationContext
+import org.jenkinsci.plugins.all_changes.ChangeRecord
 import org.jvnet.localizer.LocaleProvider
 
 import java.text.DateFormat
@@ -39,14 +40,24 @@ st = namespace("jelly:stapler")
 def from = buildNumber(request.getParameter('from'));
 def to = buildNumber(request.getParameter('to'));
 
-def builds = Functions.filter(my.project.buildsAsMap, from, to).values()
-if (builds.empty) {
+def loaded = request.getAttribute("allChanges.buildChanges")
+
+if (loaded != null) {
+    showBuildChanges(loaded.build, loaded.records, loaded.truncated)
+} else if (from != null || to != null) {
+    def builds = Functions.filter(my.project.buildsAsMap, from, to).values()
+    if (builds.empty) {
+        text(_("No builds."))
+    } else {
+        showChanges(builds)
+    }
+} else if (my.project.lastBuild == null) {
     text(_("No builds."))
 } else {
-    showChanges(builds)
+    def cursor = request.getParameter('cursor')
+    showPage(my.getChangesPage(cursor?.isInteger() ? cursor.toInteger() : null, my.pageSize))
 }
 
-
 private buildNumber(String build) {
     if (build?.isInteger()) {
         return build
@@ -60,31 +71,18 @@ private buildNumber(String build) {
 private showChanges(Collection<WorkflowRun> builds) {
     def changedBuildCount = 1;
     boolean hadChanges = false;
+    def context = new AggregationContext()
     for (WorkflowRun build in builds) {
-        Multimap<ChangeLogSet.Entry, WorkflowRun> changes = my.getAllChanges(build);
-        if (changes.empty) {
-            continue
-        }
         if(changedBuildCount > my.numChanges && my.numChanges != 0)
         {
             break
         }
-        hadChanges = true
-        h2() {
-            a(href: "${my.project.absoluteUrl}/${build.number}/changes",
-                    """${build.displayName}  (${
-                        DateFormat.getDateTimeInstance(
-                                DateFormat.MEDIUM,
-                                DateFormat.MEDIUM,
-                                LocaleProvider.locale).format(build.timestamp.time)})""")
-        }
-        ul() {
-            for (entry in changes.keySet()) {
-                li() {
-                    showEntry(entry, build, changes.get(entry))
-                }
-            }
+        def buildChanges = my.getBuildChanges(build, context)
+        if (buildChanges.empty) {
+            continue
         }
+        hadChanges = true
+        showBuildChanges(build, buildChanges.records, buildChanges.truncated)
         changedBuildCount++;
     }
     if (!hadChanges) {
@@ -92,40 +90,92 @@ private showChanges(Collection<WorkflowRun> builds) {
     }
 }
 
-private def showEntry(entry, WorkflowRun build, Collection<WorkflowRun> builds) {
-    showChangeSet(entry)
-    boolean firstDrawn = false
-    for (WorkflowRun b in builds) {
-        if (b != build) {
-            if (!firstDrawn) {
-                text(" (")
-                firstDrawn = true
-            }
-            else {
-                text(", ")
+private showPage(page) {
+    if (page.builds.empty) {
+        text(_("No changes in any of the builds."))
+    }
+    boolean pending = false
+    for (buildChanges in page.builds) {
+        if (buildChanges.pending) {
+            showPendingBuild(buildChanges.build)
+            pending = true
+        } else {
+            showBuildChanges(buildChanges.build, buildChanges.records, buildChanges.truncated)
+        }
+    }
+    if (page.nextCursor != null) {
+        div() {
+            a(href: "${my.project.absoluteUrl}${my.urlName}?cursor=${page.nextCursor}", _("Older changes"))
+        }
+    }
+    if (pending) {
+        loadPendingBuilds()
+    }
+}
+
+private showPendingBuild(Run build) {
+    div(class: "all-changes-pending",
+            "data-url": "${my.project.absoluteUrl}${my.urlName}/buildChanges?number=${build.number}",
+            "data-failed": _("Failed to load the changes.")) {
+        showBuildTitle(build)
+        p(_("Loading changes..."))
+    }
+}
+
+/**
+ * Replaces each placeholder by the changes of its build, polling until they have been calculated.
+ */
+private loadPendingBuilds() {
+    script(type: "text/javascript") {
+        raw("""
+(function() {
+    function load(pending) {
+        var request = new XMLHttpRequest();
+        request.open('GET', pending.getAttribute('data-url'));
+        request.onload = function() {
+            if (request.status == 202) {
+                setTimeout(function() { load(pending); }, 1000);
+            } else if (request.status == 204) {
+                pending.parentNode.removeChild(pending);
+            } else if (request.status == 200) {
+                pending.innerHTML = request.responseText;
+            } else {
+                pending.lastChild.textContent = pending.getAttribute('data-failed');
             }
-            a(href: "${rootURL}/${b.project.url}") {text(b.project.displayName)}
-            st.nbsp()
-            a(href: "${rootURL}/${b.url}") {
-                text(b.displayName)
+        };
+        request.send();
+    }
+    var pending = document.querySelectorAll('div.all-changes-pending');
+    for (var i = 0; i < pending.length; i++) {
+        load(pending[i]);
+    }
+})();
+""")
+    }
+}
+
+private showBuildChanges(Run build, List<ChangeRecord> records, boolean truncated) {
+    showBuildTitle(build)
+    set("changesBuild", build)
+    ul() {
+        for (record in records) {
+            li() {
+                st.include(page: "record.groovy", it: record)
             }
         }
     }
-    if (firstDrawn) {
-        text(")")
+    if (truncated) {
+        p(class: "warning", _("truncated"))
     }
 }
 
-private def showChangeSet(ChangeLogSet.Entry c) {
-    def build = c.parent.run
-    def browser = c.parent.browser
-    raw(c.getCommitId())
-    raw(" &#187; ")
-    raw(c.msgAnnotated)
-    raw(" &#8212; ")
-    if (browser?.getChangeSetLink(c)) {
-        a(href: browser.getChangeSetLink(c), _("detail"))
-    } else {
-        a(href: "${build.absoluteUrl}changes", _("detail"))
+private showBuildTitle(Run build) {
+    h2() {
+        a(href: "${my.project.absoluteUrl}/${build.number}/changes",
+                """${build.displayName}  (${
+                    DateFormat.getDateTimeInstance(
+                            DateFormat.MEDIUM,
+                            DateFormat.MEDIUM,
+                            LocaleProvider.locale).format(build.timestamp.time)})""")
     }
-}
\ No newline at end of file
+}
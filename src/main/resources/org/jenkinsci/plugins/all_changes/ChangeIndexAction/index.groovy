@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes.ChangeIndexAction
+
+l = namespace(lib.LayoutTagLib)
+st = namespace("jelly:stapler")
+
+def commit = request.getParameter("commit")?.trim()
+
+l.layout(title: my.displayName) {
+    l.main_panel() {
+        h1(my.displayName)
+        form(method: "get", action: ".") {
+            text(_("Commit id"))
+            st.nbsp()
+            input(type: "text", name: "commit", value: commit ?: "", size: "42")
+            st.nbsp()
+            input(type: "submit", value: _("Search"))
+        }
+        if (commit) {
+            def lookup = my.lookup(commit)
+            def hits = lookup.hits
+            if (hits.empty) {
+                p(_("No builds contain this commit."))
+            } else {
+                table(class: "pane sortable bigtable") {
+                    tr() {
+                        th(class: "pane-header", _("Commit id"))
+                        th(class: "pane-header", _("Build"))
+                        th(class: "pane-header", _("Recorded in"))
+                    }
+                    for (hit in hits) {
+                        def build = hit.build
+                        tr() {
+                            td(class: "pane") { text(hit.commitId) }
+                            td(class: "pane") {
+                                a(href: "${rootURL}/${build.parent.url}") { text(build.parent.fullDisplayName) }
+                                st.nbsp()
+                                a(href: "${rootURL}/${build.url}") { text(build.displayName) }
+                            }
+                            td(class: "pane") {
+                                boolean first = true
+                                for (b in hit.recordedIn) {
+                                    if (!first) {
+                                        text(", ")
+                                    }
+                                    first = false
+                                    a(href: "${rootURL}/${b.url}") { text(b.fullDisplayName) }
+                                }
+                            }
+                        }
+                    }
+                }
+                if (lookup.truncated) {
+                    p(_("Only the newest builds containing this commit are listed. Enter more of the commit id to narrow the search."))
+                }
+            }
+        }
+    }
+}
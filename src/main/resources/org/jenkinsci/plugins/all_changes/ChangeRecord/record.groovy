@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes.ChangeRecord
+
+import hudson.model.Run
+import org.jenkinsci.plugins.all_changes.AnnotatedMessageCache
+
+/*
+ * Renders one change. The including page sets "changesBuild" to the build whose changes are listed,
+ * the other builds the change was recorded in are linked after it.
+ */
+
+st = namespace("jelly:stapler")
+
+raw(my.commitId)
+raw(" &#187; ")
+raw(AnnotatedMessageCache.get(my))
+def detail = my.link
+if (!detail) {
+    def recordedIn = my.buildIds.empty ? null : Run.fromExternalizableId(my.buildIds[0])
+    detail = recordedIn == null ? null : "${recordedIn.absoluteUrl}changes"
+}
+if (detail) {
+    raw(" &#8212; ")
+    a(href: detail, _("detail"))
+}
+
+boolean firstDrawn = false
+def buildId = changesBuild?.externalizableId
+for (String id in my.buildIds) {
+    def b = id == buildId ? null : Run.fromExternalizableId(id)
+    if (b != null) {
+        if (!firstDrawn) {
+            text(" (")
+            firstDrawn = true
+        }
+        else {
+            text(", ")
+        }
+        a(href: "${rootURL}/${b.parent.url}") {text(b.parent.displayName)}
+        st.nbsp()
+        a(href: "${rootURL}/${b.url}") {
+            text(b.displayName)
+        }
+    }
+}
+if (firstDrawn) {
+    text(")")
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class AggregationExecutorTest {
+
+    private final int parallelism = AggregationExecutor.PARALLELISM;
+
+    @After
+    public void restoreParallelism() {
+        AggregationExecutor.PARALLELISM = parallelism;
+    }
+
+    @Test
+    public void changingTheParallelismResizesThePoolInUse() throws Exception {
+        AggregationExecutor.PARALLELISM = 2;
+        AggregationExecutor executor = (AggregationExecutor) AggregationExecutor.get();
+
+        AggregationExecutor.PARALLELISM = 4;
+        assertSame(executor, AggregationExecutor.get());
+        assertEquals(4, executor.getMaximumPoolSize());
+        AggregationExecutor.PARALLELISM = 3;
+        assertSame(executor, AggregationExecutor.get());
+        assertEquals(3, executor.getCorePoolSize());
+        AggregationExecutor.PARALLELISM = 1;
+        assertNull(AggregationExecutor.get());
+
+        assertFalse(executor.isShutdown());
+        Future<String> task = executor.submit(new Callable<String>() {
+            public String call() {
+                return "done";
+            }
+        });
+        assertEquals("done", task.get());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.Job;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AggregationMetricsTest {
+
+    private int jobs;
+
+    @Before
+    public void reset() {
+        jobs = AggregationMetrics.JOBS;
+        AggregationMetrics.reset();
+    }
+
+    @After
+    public void restoreJobs() {
+        AggregationMetrics.JOBS = jobs;
+    }
+
+    private static Job job(String fullName) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(fullName);
+        return job;
+    }
+
+    private static long millisAgo(long millis) {
+        return System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    public void percentileOfThePageTimingsOfAJob() {
+        Job app = job("app");
+        for (int millis = 1; millis <= 100; millis++) {
+            AggregationMetrics.time("page", app, millisAgo(millis));
+        }
+
+        long p95 = AggregationMetrics.getJobPercentiles().get("page.app");
+
+        assertTrue(p95 >= TimeUnit.MILLISECONDS.toNanos(95) && p95 < TimeUnit.MILLISECONDS.toNanos(96));
+        assertEquals(100, AggregationMetrics.getStats().get("page").getCount());
+    }
+
+    @Test
+    public void onlyTheJobsShownLastAreKeptApart() {
+        AggregationMetrics.JOBS = 2;
+        Job app = job("app");
+        AggregationMetrics.time("page", app, millisAgo(1));
+        AggregationMetrics.time("page", job("lib"), millisAgo(1));
+        AggregationMetrics.time("page", app, millisAgo(1));
+        AggregationMetrics.time("page", job("web"), millisAgo(1));
+
+        assertEquals("[page.app, page.web]", AggregationMetrics.getJobPercentiles().keySet().toString());
+        assertEquals(4, AggregationMetrics.getStats().get("page").getCount());
+    }
+
+    @Test
+    public void metricsAreExposedAsMXBean() throws Exception {
+        AggregationMetrics.registerMBean();
+        AggregationMetrics.count("builds.expanded", 3);
+        AggregationMetrics.size("closure.size", 7);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(AggregationMetrics.OBJECT_NAME);
+
+        TabularData counters = (TabularData) server.getAttribute(name, "Counters");
+        TabularData stats = (TabularData) server.getAttribute(name, "Stats");
+
+        assertEquals(3L, counters.get(new Object[] {"builds.expanded"}).get("value"));
+        CompositeData closureSize = (CompositeData) stats.get(new Object[] {"closure.size"}).get("value");
+        assertEquals(1L, closureSize.get("count"));
+        assertEquals(7L, closureSize.get("max"));
+
+        server.invoke(name, "reset", null, null);
+
+        assertTrue(AggregationMetrics.getCounters().isEmpty());
+    }
+}
@@ -32,6 +32,7 @@ import org.junit.Test;
 
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
@@ -43,7 +44,7 @@ public class AllChangesActionTest {
     @Test
     public void getContributingBuildsShouldWorkTransitively() throws Exception {
         AllChangesAction changesAction = new AllChangesAction(null);
-        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class);
+        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class, CALLS_REAL_METHODS);
         AbstractBuild build = mock(AbstractBuild.class);
         AbstractBuild build2 = mock(AbstractBuild.class);
         AbstractBuild build3 = mock(AbstractBuild.class);
@@ -60,7 +61,7 @@ public class AllChangesActionTest {
     @Test
     public void getContributingBuildsShouldWorkHandleCycles() throws Exception {
         AllChangesAction changesAction = new AllChangesAction(null);
-        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class);
+        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class, CALLS_REAL_METHODS);
         AbstractBuild build = mock(AbstractBuild.class);
         AbstractBuild build2 = mock(AbstractBuild.class);
         AbstractBuild build3 = mock(AbstractBuild.class);
@@ -78,8 +79,8 @@ public class AllChangesActionTest {
     @Test
     public void getContributingBuildsWorksWithMoreThanOneAggregator() throws Exception {
         AllChangesAction changesAction = new AllChangesAction(null);
-        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class);
-        ChangesAggregator aggregatorMock2 = mock(ChangesAggregator.class);
+        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class, CALLS_REAL_METHODS);
+        ChangesAggregator aggregatorMock2 = mock(ChangesAggregator.class, CALLS_REAL_METHODS);
         AbstractBuild build = mock(AbstractBuild.class);
         AbstractBuild build2 = mock(AbstractBuild.class);
         AbstractBuild build3 = mock(AbstractBuild.class);
@@ -92,4 +93,26 @@ public class AllChangesActionTest {
 
         assertTrue(foundBuilds.equals(ImmutableSet.of(build, build2, build3)));
     }
+
+    @Test
+    public void sharedContextAggregatesEachBuildOnce() throws Exception {
+        AllChangesAction changesAction = new AllChangesAction(null);
+        ChangesAggregator aggregatorMock = mock(ChangesAggregator.class, CALLS_REAL_METHODS);
+        AbstractBuild build = mock(AbstractBuild.class);
+        AbstractBuild build2 = mock(AbstractBuild.class);
+        AbstractBuild upstream = mock(AbstractBuild.class);
+        when(aggregatorMock.aggregateBuildsWithChanges(build)).thenReturn(ImmutableList.of(upstream));
+        when(aggregatorMock.aggregateBuildsWithChanges(build2)).thenReturn(ImmutableList.of(upstream));
+
+        changesAction.aggregators = Lists.newArrayList(aggregatorMock);
+
+        AggregationContext context = new AggregationContext();
+        Set<AbstractBuild> foundBuilds = changesAction.getClosure(build, context).getBuilds();
+        Set<AbstractBuild> foundBuilds2 = changesAction.getClosure(build2, context).getBuilds();
+
+        assertTrue(foundBuilds.equals(ImmutableSet.of(build, upstream)));
+        assertTrue(foundBuilds2.equals(ImmutableSet.of(build2, upstream)));
+        verify(aggregatorMock, times(1)).aggregateBuildsWithChanges(upstream);
+        assertEquals(1, context.getHits());
+    }
 }
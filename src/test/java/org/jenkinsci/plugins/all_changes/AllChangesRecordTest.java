@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import hudson.model.AbstractBuild;
+import hudson.model.Action;
+import hudson.model.Run;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Set;
+
+import static org.jenkinsci.plugins.all_changes.TestChanges.build;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AllChangesRecordTest {
+
+    private boolean enabled;
+
+    @Before
+    public void enableRecorder() {
+        enabled = AllChangesRecord.Recorder.ENABLED;
+        AllChangesRecord.Recorder.ENABLED = true;
+    }
+
+    @After
+    public void restoreRecorder() {
+        AllChangesRecord.Recorder.ENABLED = enabled;
+    }
+
+    private static AllChangesRecord.Recorder recorder(final BuildClosure<? extends Run> closure) {
+        return new AllChangesRecord.Recorder() {
+            @Override
+            BuildClosure<? extends Run> closure(Run run) {
+                return closure;
+            }
+        };
+    }
+
+    @Test
+    public void recordsContributingBuildsAndTheirChanges() throws Exception {
+        AbstractBuild build = build("app", 2, new TestChanges.Entry("a", "A", 1));
+        AbstractBuild upstream = build("lib", 5, new TestChanges.Entry("a", "A", 1), new TestChanges.Entry("b", "B", 2));
+
+        recorder(new BuildClosure<AbstractBuild>(ImmutableSet.of(build, upstream), 1, false)).onCompleted(build, null);
+
+        ArgumentCaptor<Action> action = ArgumentCaptor.forClass(Action.class);
+        verify(build).addAction(action.capture());
+        verify(build).save();
+        AllChangesRecord record = (AllChangesRecord) action.getValue();
+        assertEquals(ImmutableList.of("app#2", "lib#5"), record.getBuildIds());
+        assertEquals(ImmutableList.of(new ChangeKey("a", "A", 1), new ChangeKey("b", "B", 2)), record.getChangeKeys());
+        assertTrue(record.hasChanges());
+    }
+
+    @Test
+    public void truncatedClosureIsNotRecorded() throws Exception {
+        AbstractBuild build = build("app", 2);
+
+        recorder(new BuildClosure<AbstractBuild>(ImmutableSet.of(build), 1, true)).onCompleted(build, null);
+
+        verify(build, never()).addAction(any(Action.class));
+    }
+
+    @Test
+    public void recordedBuildIsNotRecordedAgain() throws Exception {
+        AbstractBuild build = build("app", 2);
+        AllChangesRecord recorded = new AllChangesRecord(ImmutableList.of("app#2"), ImmutableList.<ChangeKey>of());
+        when(build.getAction(AllChangesRecord.class)).thenReturn(recorded);
+
+        recorder(new BuildClosure<AbstractBuild>(ImmutableSet.of(build), 0, false)).onCompleted(build, null);
+
+        verify(build, never()).addAction(any(Action.class));
+        assertFalse(recorded.hasChanges());
+    }
+
+    @Test
+    public void recordedClosureIsReusedWithoutWalking() throws Exception {
+        AbstractBuild build = build("app", 2);
+        AbstractBuild upstream = build("lib", 5);
+        AllChangesRecord record = mock(AllChangesRecord.class);
+        when(record.getContributingBuilds(AbstractBuild.class)).thenReturn(ImmutableSet.of(build, upstream));
+        when(build.getAction(AllChangesRecord.class)).thenReturn(record);
+        ChangesAggregator aggregator = mock(ChangesAggregator.class);
+        AllChangesAction changesAction = new AllChangesAction(null);
+        changesAction.aggregators = Lists.newArrayList(aggregator);
+
+        Set<AbstractBuild> closure = changesAction.getClosure(build).getBuilds();
+
+        assertEquals(ImmutableSet.of(build, upstream), closure);
+        verify(aggregator, never()).aggregateBuildsWithChanges(any(AbstractBuild.class));
+    }
+
+    @Test
+    public void closureIsWalkedWhenARecordedBuildIsGone() throws Exception {
+        AbstractBuild build = build("app", 2);
+        AbstractBuild upstream = build("lib", 5);
+        AllChangesRecord record = mock(AllChangesRecord.class);
+        when(record.getContributingBuilds(AbstractBuild.class)).thenReturn(null);
+        when(build.getAction(AllChangesRecord.class)).thenReturn(record);
+        ChangesAggregator aggregator = mock(ChangesAggregator.class, CALLS_REAL_METHODS);
+        when(aggregator.aggregateBuildsWithChanges(build)).thenReturn(ImmutableList.of(upstream));
+        AllChangesAction changesAction = new AllChangesAction(null);
+        changesAction.aggregators = Lists.newArrayList(aggregator);
+
+        Set<AbstractBuild> closure = changesAction.getClosure(build).getBuilds();
+
+        assertEquals(ImmutableSet.of(build, upstream), closure);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.Run;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class AnnotatedMessageCacheTest {
+
+    /**
+     * Counts how often the annotators would have run.
+     */
+    static class AnnotatedEntry extends TestChanges.Entry {
+        int annotated;
+
+        AnnotatedEntry(String commitId, String msg, long timestamp) {
+            super(commitId, msg, timestamp);
+        }
+
+        @Override
+        public String getMsgAnnotated() {
+            annotated++;
+            return "<b>" + getMsg() + "</b>";
+        }
+    }
+
+    private Run build;
+
+    @Before
+    public void clearCache() {
+        AnnotatedMessageCache.clear();
+        build = mock(Run.class);
+    }
+
+    private static AnnotatedEntry entry(Run build, String commitId) {
+        AnnotatedEntry entry = new AnnotatedEntry(commitId, "Fix " + commitId, 1);
+        new TestChanges.ChangeSet(build, entry);
+        return entry;
+    }
+
+    @Test
+    public void changeIsAnnotatedOncePerBuild() {
+        AnnotatedEntry entry = entry(build, "a");
+        long hits = AnnotatedMessageCache.getHits();
+
+        assertEquals("<b>Fix a</b>", AnnotatedMessageCache.get(entry));
+        assertEquals("<b>Fix a</b>", AnnotatedMessageCache.get(entry));
+        assertEquals("<b>Fix a</b>", AnnotatedMessageCache.get(entry(build, "a")));
+
+        assertEquals(1, entry.annotated);
+        assertEquals(hits + 2, AnnotatedMessageCache.getHits());
+    }
+
+    @Test
+    public void changesAndBuildsAreAnnotatedSeparately() {
+        AnnotatedEntry a = entry(build, "a");
+        AnnotatedEntry b = entry(build, "b");
+        AnnotatedEntry otherBuild = entry(mock(Run.class), "a");
+
+        assertEquals("<b>Fix a</b>", AnnotatedMessageCache.get(a));
+        assertEquals("<b>Fix b</b>", AnnotatedMessageCache.get(b));
+        assertEquals("<b>Fix a</b>", AnnotatedMessageCache.get(otherBuild));
+
+        assertEquals(1, a.annotated);
+        assertEquals(1, b.annotated);
+        assertEquals(1, otherBuild.annotated);
+    }
+
+    @Test
+    public void invalidatedBuildIsAnnotatedAgain() {
+        AnnotatedEntry entry = entry(build, "a");
+        AnnotatedEntry otherBuild = entry(mock(Run.class), "a");
+        AnnotatedMessageCache.get(entry);
+        AnnotatedMessageCache.get(otherBuild);
+
+        AnnotatedMessageCache.invalidate(build);
+        AnnotatedMessageCache.get(entry);
+        AnnotatedMessageCache.get(otherBuild);
+
+        assertEquals(2, entry.annotated);
+        assertEquals(1, otherBuild.annotated);
+    }
+
+    @Test
+    public void clearedCacheAnnotatesAgain() {
+        AnnotatedEntry entry = entry(build, "a");
+        AnnotatedMessageCache.get(entry);
+
+        AnnotatedMessageCache.clear();
+        AnnotatedMessageCache.get(entry);
+
+        assertEquals(2, entry.annotated);
+    }
+
+    @Test
+    public void changeWithoutBuildIsNotCached() {
+        AnnotatedEntry entry = new AnnotatedEntry("a", "Fix a", 1);
+        long misses = AnnotatedMessageCache.getMisses();
+
+        AnnotatedMessageCache.get(entry);
+        AnnotatedMessageCache.get(entry);
+
+        assertEquals(2, entry.annotated);
+        assertEquals(misses + 2, AnnotatedMessageCache.getMisses());
+    }
+
+    @Test
+    public void recordKeepsItsAnnotatedMessage() {
+        ChangeRecord record = ChangeRecord.builder().commitId("a").msg("Fix a").msgAnnotated("<i>Fix a</i>").build();
+
+        assertEquals("<i>Fix a</i>", AnnotatedMessageCache.get(record));
+    }
+
+    @Test
+    public void recordWithoutBuildIsEscaped() {
+        ChangeRecord record = ChangeRecord.builder().commitId("a").msg("Fix a < b").build();
+
+        assertEquals("Fix a &lt; b", AnnotatedMessageCache.get(record));
+    }
+}
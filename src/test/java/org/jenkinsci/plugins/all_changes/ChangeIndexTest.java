@@ -0,0 +1,186 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMultimap;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeIndexTest {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws Exception {
+        directory = File.createTempFile("all-changes", ".index");
+        directory.delete();
+    }
+
+    @After
+    public void deleteDirectory() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private void add(String buildId, String recordedIn, String... commitIds) throws Exception {
+        ImmutableMultimap.Builder<String, String> commits = ImmutableMultimap.builder();
+        for (String commitId : commitIds) {
+            commits.put(recordedIn, commitId);
+        }
+        ChangeIndex.add(directory, buildId, commits.build());
+    }
+
+    private List<ChangeIndex.Hit> lookup(String commitId) throws Exception {
+        return ChangeIndex.lookup(directory, commitId, 0).getHits();
+    }
+
+    private static String buildIds(List<ChangeIndex.Hit> hits) {
+        StringBuilder ids = new StringBuilder();
+        for (ChangeIndex.Hit hit : hits) {
+            if (ids.length() > 0) {
+                ids.append(' ');
+            }
+            ids.append(hit.getBuildId());
+        }
+        return ids.toString();
+    }
+
+    @Test
+    public void findsBuildsContainingCommitNewestFirst() throws Exception {
+        add("lib#5", "lib#5", "1a2b3c");
+        add("app#2", "lib#5", "1a2b3c", "4d5e6f");
+
+        List<ChangeIndex.Hit> hits = lookup("1a2b3c");
+
+        assertEquals("app#2 lib#5", buildIds(hits));
+        assertEquals("1a2b3c", hits.get(0).getCommitId());
+        assertEquals(ImmutableList.of("lib#5"), hits.get(0).getRecordedInIds());
+        assertEquals("app#2", buildIds(lookup(" 4d5e6f ")));
+    }
+
+    @Test
+    public void mergesBuildsRecordingTheSameCommit() throws Exception {
+        ChangeIndex.add(directory, "app#2", ImmutableMultimap.of("lib#5", "1a2b3c", "other#7", "1a2b3c"));
+
+        List<ChangeIndex.Hit> hits = lookup("1a2b3c");
+
+        assertEquals(1, hits.size());
+        assertEquals(ImmutableList.of("lib#5", "other#7"), hits.get(0).getRecordedInIds());
+    }
+
+    @Test
+    public void findsCommitsByPrefix() throws Exception {
+        add("app#1", "app#1", "1a2b3c");
+        add("app#2", "app#2", "1a9999");
+
+        assertEquals("app#2 app#1", buildIds(lookup("1a")));
+        assertEquals("app#1", buildIds(lookup("1a2")));
+        assertTrue(lookup("1").isEmpty());
+        assertTrue(lookup("1b").isEmpty());
+    }
+
+    @Test
+    public void keepsTheNewestHitsOfAShortPrefix() throws Exception {
+        add("app#1", "app#1", "1a2b3c");
+        add("app#2", "app#2", "1a9999");
+        add("app#3", "app#3", "1a7777");
+
+        ChangeIndex.Lookup lookup = ChangeIndex.lookup(directory, "1a", 2);
+
+        assertEquals("app#3 app#2", buildIds(lookup.getHits()));
+        assertTrue(lookup.isTruncated());
+        assertFalse(ChangeIndex.lookup(directory, "1a", 3).isTruncated());
+    }
+
+    @Test
+    public void commitsWithTheSamePrefixShareAShard() {
+        assertEquals(ChangeIndex.shard("1a2b3c"), ChangeIndex.shard("1a9999"));
+        assertEquals(ChangeIndex.shard("1a"), ChangeIndex.shard("1a2b3c"));
+        assertTrue(ChangeIndex.shard("1a2b3c") >= 0 && ChangeIndex.shard("1a2b3c") < ChangeIndex.SHARDS);
+    }
+
+    @Test
+    public void ignoresMissingIndexAndLineBeingAppended() throws Exception {
+        assertTrue(lookup("1a2b3c").isEmpty());
+
+        add("app#1", "app#1", "1a2b3c");
+        FileOutputStream out = new FileOutputStream(new File(directory, String.format("%02d.log", ChangeIndex.shard("1a"))), true);
+        try {
+            out.write("1a2b3c\tapp#2\tap".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+
+        assertEquals("app#1", buildIds(lookup("1a2b3c")));
+    }
+
+    @Test
+    public void pruneRemovesDeletedBuildsAndJobs() throws Exception {
+        add("app#1", "lib#5", "1a2b3c");
+        add("app#2", "lib#5", "1a2b3c");
+        add("folder/app#3", "folder/app#3", "1a2b3c");
+        add("lib#5", "lib#5", "1a2b3c");
+
+        ChangeIndex.Pruning pruning = new ChangeIndex.Pruning();
+        pruning.deletedBuilds.add("app#1");
+        pruning.deletedBuilds.add("lib#5");
+        pruning.jobs.add(new String[] {"folder", null});
+        ChangeIndex.prune(directory, pruning);
+
+        List<ChangeIndex.Hit> hits = lookup("1a2b3c");
+        assertEquals("app#2", buildIds(hits));
+        assertEquals(ImmutableList.of("lib#5"), hits.get(0).getRecordedInIds());
+    }
+
+    @Test
+    public void pruneRenamesMovedJobs() throws Exception {
+        add("app#1", "folder/lib#5", "1a2b3c");
+        add("application#2", "application#2", "1a2b3c");
+
+        ChangeIndex.Pruning pruning = new ChangeIndex.Pruning();
+        pruning.jobs.add(new String[] {"app", "web"});
+        pruning.jobs.add(new String[] {"folder", "libs"});
+        pruning.jobs.add(new String[] {"web", "site"});
+        ChangeIndex.prune(directory, pruning);
+
+        List<ChangeIndex.Hit> hits = lookup("1a2b3c");
+        assertEquals("application#2 site#1", buildIds(hits));
+        assertEquals(ImmutableList.of("libs/lib#5"), hits.get(1).getRecordedInIds());
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ChangeKeyTest {
+
+    @Test
+    public void sameChangeInDifferentBuildsHasSameKey() throws Exception {
+        assertEquals(ChangeKey.of(new TestChanges.Entry("abc", "Fix JENKINS-1", 42)),
+                ChangeKey.of(new TestChanges.Entry("abc", "Fix JENKINS-1", 42)));
+    }
+
+    @Test
+    public void differentMessagesOrTimestampsHaveDifferentKeys() throws Exception {
+        ChangeKey key = ChangeKey.of(new TestChanges.Entry("abc", "Fix JENKINS-1", 42));
+
+        assertFalse(key.equals(ChangeKey.of(new TestChanges.Entry("abc", "Fix JENKINS-2", 42))));
+        assertFalse(key.equals(ChangeKey.of(new TestChanges.Entry("abc", "Fix JENKINS-1", 43))));
+        assertFalse(key.equals(ChangeKey.of(new TestChanges.Entry("def", "Fix JENKINS-1", 42))));
+    }
+
+    @Test
+    public void changesWithoutCommitIdAreComparedByMessage() throws Exception {
+        assertEquals(ChangeKey.of(new TestChanges.Entry(null, "Fix JENKINS-1", 42)),
+                ChangeKey.of(new TestChanges.Entry(null, "Fix JENKINS-1", 42)));
+        assertFalse(ChangeKey.of(new TestChanges.Entry(null, "Aa", 42)).equals(ChangeKey.of(new TestChanges.Entry(null, "BB", 42))));
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
+import hudson.model.AbstractBuild;
+import hudson.scm.ChangeLogSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import static org.jenkinsci.plugins.all_changes.TestChanges.build;
+import static org.jenkinsci.plugins.all_changes.TestChanges.entry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChangeRecordTest {
+
+    private boolean sidecarEnabled;
+
+    @Before
+    public void readChangeLogs() {
+        sidecarEnabled = ChangeSidecar.ENABLED;
+        ChangeSidecar.ENABLED = false;
+    }
+
+    @After
+    public void restoreSidecar() {
+        ChangeSidecar.ENABLED = sidecarEnabled;
+    }
+
+    @Test
+    public void builderCopiesEntryWithoutAnnotationAndPaths() {
+        ChangeRecord record = ChangeRecord.builder(entry("a")).build();
+
+        assertEquals("a", record.getCommitId());
+        assertEquals("Fix a", record.getMsg());
+        assertEquals(42, record.getTimestamp());
+        assertNull(record.getAuthorId());
+        assertNull(record.getMsgAnnotated());
+        assertNull(record.getLink());
+        assertTrue(record.getBuildIds().isEmpty());
+        assertEquals(ChangeKey.of(entry("a")), record.getKey());
+    }
+
+    @Test
+    public void builderOfRecordCopiesAllButTheBuilds() {
+        ChangeRecord record = ChangeRecord.builder().commitId("a").authorId("jane").timestamp(42).msg("Fix a")
+                .msgAnnotated("<b>Fix a</b>").link("http://example.com/a").recordedIn("app#1").build();
+
+        ChangeRecord copy = ChangeRecord.builder(record).recordedIn("app#2").build();
+
+        assertEquals("a", copy.getCommitId());
+        assertEquals("jane", copy.getAuthorId());
+        assertEquals(42, copy.getTimestamp());
+        assertEquals("Fix a", copy.getMsg());
+        assertEquals("<b>Fix a</b>", copy.getMsgAnnotated());
+        assertEquals("http://example.com/a", copy.getLink());
+        assertEquals(ImmutableList.of("app#2"), copy.getBuildIds());
+        assertEquals(record.getKey(), copy.getKey());
+    }
+
+    @Test
+    public void recordSurvivesSerialization() throws Exception {
+        ChangeRecord record = ChangeRecord.builder(entry("a")).recordedIn("app#1").recordedIn("lib#5").build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(record);
+        out.close();
+        ChangeRecord read = (ChangeRecord) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertEquals(record.getKey(), read.getKey());
+        assertEquals(ImmutableList.of("app#1", "lib#5"), read.getBuildIds());
+    }
+
+    @Test
+    public void recordKnowsItsBuilds() {
+        AbstractBuild build = build("app", 1);
+        AbstractBuild other = build("app", 2);
+
+        ChangeRecord record = ChangeRecord.builder(entry("a")).recordedIn(build).build();
+
+        assertEquals(ImmutableList.of("app#1"), record.getBuildIds());
+        assertTrue(record.isRecordedIn(build));
+        assertFalse(record.isRecordedIn(other));
+    }
+
+    @Test
+    public void changesOfSeveralBuildsBecomeOneRecord() {
+        AbstractBuild build = build("app", 1);
+        AbstractBuild upstream = build("lib", 5);
+        Multimap<ChangeLogSet.Entry, AbstractBuild> changes = LinkedHashMultimap.create();
+        changes.put(entry("a"), build);
+        changes.put(entry("b"), upstream);
+        ChangeLogSet.Entry shared = entry("c");
+        changes.put(shared, build);
+        changes.put(shared, upstream);
+
+        List<ChangeRecord> records = ContributingBuilds.records(changes);
+
+        assertEquals(3, records.size());
+        assertEquals(ImmutableList.of("app#1"), records.get(0).getBuildIds());
+        assertEquals(ImmutableList.of("lib#5"), records.get(1).getBuildIds());
+        assertEquals(ImmutableList.of("app#1", "lib#5"), records.get(2).getBuildIds());
+    }
+
+    @Test
+    public void recordsOfTheClosureAreMergedByChange() {
+        AbstractBuild build = build("app", 2, entry("a"));
+        AbstractBuild upstream = build("lib", 5, entry("a"), entry("b"));
+        AbstractBuild other = build("other", 7, entry("a"));
+        BuildClosure<AbstractBuild> closure = new BuildClosure<AbstractBuild>(ImmutableSet.of(build, upstream, other), 1, false);
+
+        ChangesPage.BuildChanges<AbstractBuild> changes = ContributingBuilds.records(build, closure,
+                new ChangesBudget(0, 0, 0), System.nanoTime());
+
+        List<ChangeRecord> records = changes.getRecords();
+        assertEquals(2, records.size());
+        assertEquals("a", records.get(0).getCommitId());
+        assertEquals(ImmutableList.of("app#2", "lib#5", "other#7"), records.get(0).getBuildIds());
+        assertEquals("b", records.get(1).getCommitId());
+        assertEquals(ImmutableList.of("lib#5"), records.get(1).getBuildIds());
+        assertFalse(changes.isTruncated());
+    }
+
+    @Test
+    public void mergeStopsAtMaxChanges() {
+        AbstractBuild build = build("app", 2, entry("a"), entry("b"));
+        AbstractBuild upstream = build("lib", 5, entry("c"));
+        BuildClosure<AbstractBuild> closure = new BuildClosure<AbstractBuild>(ImmutableSet.of(build, upstream), 1, false);
+
+        ChangesPage.BuildChanges<AbstractBuild> changes = ContributingBuilds.records(build, closure,
+                new ChangesBudget(0, 2, 0), System.nanoTime());
+
+        assertEquals(2, changes.getRecords().size());
+        assertTrue(changes.isTruncated());
+    }
+}
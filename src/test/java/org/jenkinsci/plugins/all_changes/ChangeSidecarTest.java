@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class ChangeSidecarTest {
+
+    private File file;
+
+    @Before
+    public void createFile() throws Exception {
+        file = File.createTempFile("all-changes", ".bin");
+        file.delete();
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void readsWhatWasWritten() throws Exception {
+        ChangeRecord full = ChangeRecord.builder().commitId("1a2b3c").authorId("jane").timestamp(1500000000000L)
+                .msg("Fix l\u00f6gin").msgAnnotated("Fix <b>l\u00f6gin</b>").link("http://example.com/1a2b3c").build();
+        ChangeRecord empty = ChangeRecord.builder().build();
+
+        ChangeSidecar.write(file, ImmutableList.of(full, empty), "plugins/1");
+        List<ChangeRecord> read = ChangeSidecar.read(file, "app#42", "plugins/1");
+
+        assertEquals(2, read.size());
+        assertEquals("1a2b3c", read.get(0).getCommitId());
+        assertEquals("jane", read.get(0).getAuthorId());
+        assertEquals(1500000000000L, read.get(0).getTimestamp());
+        assertEquals("Fix l\u00f6gin", read.get(0).getMsg());
+        assertNull(read.get(0).getMsgAnnotated());
+        assertEquals("http://example.com/1a2b3c", read.get(0).getLink());
+        assertEquals(ImmutableList.of("app#42"), read.get(0).getBuildIds());
+        assertNull(read.get(1).getCommitId());
+        assertNull(read.get(1).getMsg());
+        assertEquals(-1, read.get(1).getTimestamp());
+    }
+
+    @Test
+    public void ignoresFilesWrittenWithOtherInputs() throws Exception {
+        ChangeSidecar.write(file, ImmutableList.of(ChangeRecord.builder().commitId("1a2b3c").build()), "plugins/1");
+
+        assertNull(ChangeSidecar.read(file, "app#42", "plugins/2"));
+        assertEquals(1, ChangeSidecar.read(file, "app#42", "plugins/1").size());
+    }
+
+    @Test
+    public void replacesExistingFile() throws Exception {
+        ChangeSidecar.write(file, ImmutableList.of(ChangeRecord.builder().commitId("1a2b3c").build()), "plugins/1");
+        ChangeSidecar.write(file, ImmutableList.of(ChangeRecord.builder().commitId("4d5e6f").build()), "plugins/1");
+
+        assertEquals("4d5e6f", ChangeSidecar.read(file, "app#42", "plugins/1").get(0).getCommitId());
+    }
+
+    @Test
+    public void ignoresMissingAndForeignFiles() throws Exception {
+        assertNull(ChangeSidecar.read(file, "app#42", "plugins/1"));
+
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("<changelog/>".getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+        assertNull(ChangeSidecar.read(file, "app#42", "plugins/1"));
+    }
+}
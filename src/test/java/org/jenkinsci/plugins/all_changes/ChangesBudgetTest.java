@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.Job;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChangesBudgetTest {
+
+    private int maxBuilds;
+    private int maxChanges;
+    private long timeout;
+
+    @Before
+    public void rememberGlobalLimits() {
+        maxBuilds = AllChangesAction.MAX_BUILDS;
+        maxChanges = AllChangesAction.MAX_CHANGES;
+        timeout = AggregationExecutor.TIMEOUT;
+        AllChangesAction.MAX_BUILDS = 100;
+        AllChangesAction.MAX_CHANGES = 0;
+        AggregationExecutor.TIMEOUT = 1000;
+    }
+
+    @After
+    public void restoreGlobalLimits() {
+        AllChangesAction.MAX_BUILDS = maxBuilds;
+        AllChangesAction.MAX_CHANGES = maxChanges;
+        AggregationExecutor.TIMEOUT = timeout;
+    }
+
+    @Test
+    public void stricterLimitWins() throws Exception {
+        assertEquals(5, ChangesBudget.stricter(10, 5));
+        assertEquals(5, ChangesBudget.stricter(5, 10));
+        assertEquals(5, ChangesBudget.stricter(0, 5));
+        assertEquals(5, ChangesBudget.stricter(5, 0));
+        assertEquals(0, ChangesBudget.stricter(0, 0));
+    }
+
+    @Test
+    public void globalLimitsApplyWithoutJob() throws Exception {
+        ChangesBudget budget = ChangesBudget.of(null);
+
+        assertEquals(100, budget.getMaxBuilds());
+        assertEquals(0, budget.getMaxChanges());
+        assertEquals(1000, budget.getTimeout());
+    }
+
+    @Test
+    public void globalLimitsApplyWithoutJobProperty() throws Exception {
+        Job job = mock(Job.class);
+
+        assertEquals("100/0/1000", ChangesBudget.of(job).key());
+    }
+
+    @Test
+    public void jobPropertyOnlyRestrictsGlobalLimits() throws Exception {
+        Job job = mock(Job.class);
+        when(job.getProperty(AllChangesJobProperty.class)).thenReturn(new AllChangesJobProperty(200, 50, 0));
+
+        ChangesBudget budget = ChangesBudget.of(job);
+
+        assertEquals(100, budget.getMaxBuilds());
+        assertEquals(50, budget.getMaxChanges());
+        assertEquals(1000, budget.getTimeout());
+    }
+
+    @Test
+    public void deadlineFollowsTimeout() throws Exception {
+        assertEquals(0, new ChangesBudget(0, 0, 0).deadline(42));
+        assertEquals(42 + 2000000, new ChangesBudget(0, 0, 2).deadline(42));
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChangesLoaderTest {
+
+    private Run build;
+    private Run upstream;
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    /**
+     * Changes of the build with a change recorded in its upstream build.
+     */
+    private final Function<Run, ChangesPage.BuildChanges<Run>> allChanges = new Function<Run, ChangesPage.BuildChanges<Run>>() {
+        public ChangesPage.BuildChanges<Run> apply(Run build) {
+            loaded.incrementAndGet();
+            return ChangesPage.BuildChanges.ofRecords(build,
+                    ImmutableList.of(ChangeRecord.builder().commitId("a").recordedIn("lib#5").build()), false);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        ChangesLoader.clear();
+        build = build("app", 2);
+        upstream = build("lib", 5);
+    }
+
+    private static Run build(String jobName, int number) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(jobName);
+        Run build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        when(build.getNumber()).thenReturn(number);
+        return build;
+    }
+
+    /**
+     * Polls until the changes of the build have been calculated.
+     */
+    private static ChangesPage.BuildChanges<Run> load(Run build, Function<Run, ChangesPage.BuildChanges<Run>> allChanges)
+            throws InterruptedException {
+        long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < timeout) {
+            ChangesPage.BuildChanges<Run> changes = ChangesLoader.poll(build, allChanges);
+            if (changes != null) {
+                return changes;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("the changes of " + build + " have not been calculated");
+    }
+
+    @Test
+    public void loadedChangesAreCached() throws Exception {
+        ChangesPage.BuildChanges<Run> changes = load(build, allChanges);
+
+        assertEquals("a", changes.getRecords().get(0).getCommitId());
+        assertNotNull(ChangesLoader.poll(build, allChanges));
+        assertEquals(1, loaded.get());
+    }
+
+    @Test
+    public void changesAreLoadedAgainWhenABuildTheyAreRecordedInCompletes() throws Exception {
+        load(build, allChanges);
+
+        ChangesLoader.invalidate(build("other", 1));
+        assertNotNull(ChangesLoader.poll(build, allChanges));
+        ChangesLoader.invalidate(upstream);
+        load(build, allChanges);
+
+        assertEquals(2, loaded.get());
+    }
+
+    @Test
+    public void failedLoadIsReportedAndTriedAgain() throws Exception {
+        Function<Run, ChangesPage.BuildChanges<Run>> failing = new Function<Run, ChangesPage.BuildChanges<Run>>() {
+            public ChangesPage.BuildChanges<Run> apply(Run build) {
+                throw new IllegalArgumentException("broken change log");
+            }
+        };
+        try {
+            load(build, failing);
+            fail("the failure is reported");
+        } catch (IllegalStateException e) {
+            assertEquals("broken change log", e.getCause().getMessage());
+        }
+
+        load(build, allChanges);
+
+        assertEquals(1, loaded.get());
+    }
+
+    @Test
+    public void buildWithoutChangesIsAnsweredWith204() throws Exception {
+        Function<Run, ChangesPage.BuildChanges<Run>> noChanges = new Function<Run, ChangesPage.BuildChanges<Run>>() {
+            public ChangesPage.BuildChanges<Run> apply(Run build) {
+                return ChangesPage.BuildChanges.ofRecords(build, ImmutableList.<ChangeRecord>of(), false);
+            }
+        };
+        assertEquals(0, load(build, noChanges).getRecords().size());
+        StaplerRequest req = mock(StaplerRequest.class);
+        StaplerResponse rsp = mock(StaplerResponse.class);
+
+        ChangesLoader.serve(req, rsp, new Object(), build, noChanges);
+
+        verify(rsp).setStatus(204);
+    }
+
+    @Test
+    public void missingBuildIsAnsweredWith404() throws Exception {
+        StaplerResponse rsp = mock(StaplerResponse.class);
+
+        ChangesLoader.serve(mock(StaplerRequest.class), rsp, new Object(), null, allChanges);
+
+        verify(rsp).sendError(404);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import hudson.model.Run;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChangesPageTest {
+
+    private final Map<Run, ChangesPage.BuildChanges<Run>> changes = Maps.newHashMap();
+    private final List<Run> applied = Lists.newArrayList();
+
+    private final Function<Run, ChangesPage.BuildChanges<Run>> allChanges = new Function<Run, ChangesPage.BuildChanges<Run>>() {
+        public ChangesPage.BuildChanges<Run> apply(Run build) {
+            applied.add(build);
+            return changes.get(build);
+        }
+    };
+
+    /**
+     * #5 and #2 have changes, #4 and #3 have none and the changes of #1 are still being loaded.
+     */
+    private final Run b1 = build(1, null);
+    private final Run b2 = build(2, b1);
+    private final Run b3 = build(3, b2);
+    private final Run b4 = build(4, b3);
+    private final Run b5 = build(5, b4);
+
+    public ChangesPageTest() {
+        withChanges(b5, "c5");
+        withChanges(b4);
+        withChanges(b3);
+        withChanges(b2, "c2");
+    }
+
+    private void withChanges(Run build, String... commitIds) {
+        ImmutableList.Builder<ChangeRecord> records = ImmutableList.builder();
+        for (String commitId : commitIds) {
+            records.add(ChangeRecord.builder().commitId(commitId).build());
+        }
+        changes.put(build, ChangesPage.BuildChanges.ofRecords(build, records.build(), false));
+    }
+
+    private static Run build(int number, Run previous) {
+        Run build = mock(Run.class);
+        when(build.getNumber()).thenReturn(number);
+        when(build.getPreviousBuild()).thenReturn(previous);
+        return build;
+    }
+
+    @Test
+    public void pageEndsAfterLimitBuildsWithChanges() {
+        ChangesPage<Run> page = ChangesPage.collect(b5, 2, allChanges);
+
+        assertEquals(2, page.getBuilds().size());
+        assertSame(b5, page.getBuilds().get(0).getBuild());
+        assertSame(b2, page.getBuilds().get(1).getBuild());
+        assertEquals(Integer.valueOf(1), page.getNextCursor());
+        assertTrue(page.isLoaded());
+    }
+
+    @Test
+    public void nextPageStartsAtTheCursor() {
+        ChangesPage<Run> page = ChangesPage.collect(b1, 2, allChanges);
+
+        assertEquals(1, page.getBuilds().size());
+        assertSame(b1, page.getBuilds().get(0).getBuild());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void pendingBuildsCountAsBuildsWithChanges() {
+        ChangesPage<Run> page = ChangesPage.collect(b2, 2, allChanges);
+
+        assertSame(b1, page.getBuilds().get(1).getBuild());
+        assertTrue(page.getBuilds().get(1).isPending());
+        assertFalse(page.isLoaded());
+    }
+
+    @Test
+    public void pageWithoutLimitHasAllBuildsWithChanges() {
+        ChangesPage<Run> page = ChangesPage.collect(b5, 0, allChanges);
+
+        assertEquals(3, page.getBuilds().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void olderBuildsAreNotLookedAt() {
+        ChangesPage.collect(b5, 1, allChanges);
+
+        assertEquals(ImmutableList.of(b5), applied);
+    }
+
+    @Test
+    public void buildsRecordedWithoutChangesAreSkipped() {
+        AllChangesRecord record = new AllChangesRecord(ImmutableList.of("app#4"), ImmutableList.<ChangeKey>of());
+        when(b4.getAction(AllChangesRecord.class)).thenReturn(record);
+
+        ChangesPage<Run> page = ChangesPage.collect(b4, 1, allChanges);
+
+        assertSame(b2, page.getBuilds().get(0).getBuild());
+        assertEquals(ImmutableList.of(b3, b2), applied);
+    }
+
+    @Test
+    public void emptyJobHasEmptyPage() {
+        ChangesPage<Run> page = ChangesPage.collect(null, 2, allChanges);
+
+        assertTrue(page.getBuilds().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+}
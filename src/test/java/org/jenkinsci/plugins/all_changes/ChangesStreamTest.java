@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import hudson.model.Job;
+import hudson.model.PermalinkList;
+import hudson.model.PermalinkProjectAction;
+import hudson.model.Run;
+import net.sf.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChangesStreamTest {
+
+    private Job job;
+    private Run build;
+
+    @Before
+    public void setUp() {
+        job = mock(Job.class);
+        when(job.getFullName()).thenReturn("app");
+        build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        when(build.getNumber()).thenReturn(3);
+        when(job.getBuildByNumber(3)).thenReturn(build);
+        when(job.getPermalinks()).thenReturn(new PermalinkList(Collections.singletonList(permalink("lastBuild", build))));
+    }
+
+    private static PermalinkProjectAction.Permalink permalink(final String id, final Run run) {
+        return new PermalinkProjectAction.Permalink() {
+            @Override
+            public String getDisplayName() {
+                return id;
+            }
+
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public Run<?, ?> resolve(Job<?, ?> job) {
+                return run;
+            }
+        };
+    }
+
+    @Test
+    public void buildIsGivenByNumber() {
+        assertEquals("3", ChangesStream.buildNumber(job, "3"));
+    }
+
+    @Test
+    public void buildIsGivenByPermalink() {
+        assertEquals("3", ChangesStream.buildNumber(job, "lastBuild"));
+    }
+
+    @Test
+    public void missingBuildHasNoNumber() {
+        assertNull(ChangesStream.buildNumber(job, "4"));
+        assertNull(ChangesStream.buildNumber(job, "lastStableBuild"));
+    }
+
+    @Test
+    public void numberTooLargeForABuildHasNoNumber() {
+        assertNull(ChangesStream.buildNumber(job, "99999999999"));
+    }
+
+    @Test
+    public void missingBuildIsAnsweredWith404() throws Exception {
+        assertAnsweredWith404("4");
+    }
+
+    @Test
+    public void numberTooLargeForABuildIsAnsweredWith404() throws Exception {
+        assertAnsweredWith404("99999999999");
+    }
+
+    private void assertAnsweredWith404(String from) throws Exception {
+        StaplerRequest req = mock(StaplerRequest.class);
+        when(req.getParameter("from")).thenReturn(from);
+        StaplerResponse rsp = mock(StaplerResponse.class);
+
+        ChangesStream.serve(req, rsp, job, 10, Run.class, new Function<Run, ChangesPage.BuildChanges<Run>>() {
+            public ChangesPage.BuildChanges<Run> apply(Run build) {
+                throw new AssertionError("no changes are calculated for a missing build");
+            }
+        });
+
+        verify(rsp).sendError(404, "No such build");
+        verify(rsp, never()).setContentType(anyString());
+    }
+
+    @Test
+    public void writesOneLinePerChangeAndMarksTruncatedBuilds() {
+        StringWriter written = new StringWriter();
+
+        int found = ChangesStream.write(ImmutableList.of(build).iterator(), 0, new Function<Run, ChangesPage.BuildChanges<Run>>() {
+            public ChangesPage.BuildChanges<Run> apply(Run build) {
+                return ChangesPage.BuildChanges.ofRecords(build, ImmutableList.of(
+                        ChangeRecord.builder().commitId("a").msg("Fix a").recordedIn("app#3").build(),
+                        ChangeRecord.builder().commitId("b").msg("Fix b").recordedIn("app#3").build()), true);
+            }
+        }, new PrintWriter(written));
+
+        assertEquals(1, found);
+        String[] lines = written.toString().split("\\r?\\n");
+        assertEquals(3, lines.length);
+        assertEquals("app#3", JSONObject.fromObject(lines[0]).getString("build"));
+        assertEquals("a", JSONObject.fromObject(lines[0]).getString("commitId"));
+        assertEquals("b", JSONObject.fromObject(lines[1]).getString("commitId"));
+        assertEquals(true, JSONObject.fromObject(lines[2]).getBoolean("truncated"));
+    }
+}
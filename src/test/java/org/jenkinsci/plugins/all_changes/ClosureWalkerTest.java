@@ -0,0 +1,180 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClosureWalkerTest {
+
+    private static ClosureWalker.Expander<String> graph(final ListMultimap<String, String> edges) {
+        return new ClosureWalker.Expander<String>() {
+            public Collection<String> expand(String build) {
+                return edges.get(build);
+            }
+        };
+    }
+
+    private static final ListMultimap<String, String> DIAMOND = ImmutableListMultimap.<String, String>builder()
+            .putAll("a", "b", "c")
+            .putAll("b", "d")
+            .putAll("c", "d")
+            .putAll("d", "a")
+            .build();
+
+    @Test
+    public void expandsEveryBuildOnlyOnce() throws Exception {
+        BuildClosure<String> closure = new ClosureWalker<String>(graph(DIAMOND), 0, 0).walk("a");
+
+        assertEquals(ImmutableSet.of("a", "b", "c", "d"), closure.getBuilds());
+        assertEquals(4, closure.getExpansions());
+        assertFalse(closure.isTruncated());
+    }
+
+    @Test
+    public void stopsAtMaxDepth() throws Exception {
+        BuildClosure<String> closure = new ClosureWalker<String>(graph(DIAMOND), 1, 0).walk("a");
+
+        assertEquals(ImmutableSet.of("a", "b", "c"), closure.getBuilds());
+        assertEquals(1, closure.getExpansions());
+        assertTrue(closure.isTruncated());
+    }
+
+    @Test
+    public void stopsAtMaxBuilds() throws Exception {
+        BuildClosure<String> closure = new ClosureWalker<String>(graph(DIAMOND), 0, 2).walk("a");
+
+        assertEquals(ImmutableList.of("a", "b"), ImmutableList.copyOf(closure.getBuilds()));
+        assertTrue(closure.isTruncated());
+    }
+
+    @Test
+    public void doesNotExpandBuildsWithKnownClosure() throws Exception {
+        ClosureWalker.KnownClosures<String> known = new ClosureWalker.KnownClosures<String>() {
+            public Collection<String> get(String build) {
+                return build.equals("b") ? ImmutableSet.of("b", "d", "e") : null;
+            }
+        };
+        BuildClosure<String> closure = new ClosureWalker<String>(graph(DIAMOND), known, 0, 0, null, 0).walk("a");
+
+        assertEquals(ImmutableSet.of("a", "b", "d", "e", "c"), closure.getBuilds());
+        assertEquals(2, closure.getExpansions());
+        assertFalse(closure.isTruncated());
+    }
+
+    @Test
+    public void walksSeveralBuildsTogether() throws Exception {
+        ClosureWalker.Expander<String> counting = new ClosureWalker.Expander<String>() {
+            private final Set<String> expanded = Sets.newHashSet();
+
+            public Collection<String> expand(String build) {
+                assertTrue("expanded twice: " + build, expanded.add(build));
+                return DIAMOND.get(build);
+            }
+        };
+        BuildClosure<String> closure = new ClosureWalker<String>(counting, 0, 0).walk(ImmutableList.of("b", "c"));
+
+        assertEquals(ImmutableSet.of("b", "c", "d", "a"), closure.getBuilds());
+        assertEquals(4, closure.getExpansions());
+        assertFalse(closure.isTruncated());
+    }
+
+    @Test
+    public void expandsInParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BuildClosure<String> closure = new ClosureWalker<String>(graph(DIAMOND), 0, 0, executor, 0).walk("a");
+
+            assertEquals(ImmutableSet.of("a", "b", "c", "d"), closure.getBuilds());
+            assertEquals(4, closure.getExpansions());
+            assertFalse(closure.isTruncated());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void slowExpansionsAreCutOffByTimeout() throws Exception {
+        ClosureWalker.Expander<String> slow = new ClosureWalker.Expander<String>() {
+            public Collection<String> expand(String build) {
+                if (build.equals("b")) {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return DIAMOND.get(build);
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            BuildClosure<String> closure = new ClosureWalker<String>(slow, 0, 0, executor, 200).walk("a");
+
+            assertEquals(ImmutableSet.of("a", "b", "c", "d"), closure.getBuilds());
+            assertTrue(closure.isTruncated());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void expansionStoppedEarlyTruncatesTheWalk() {
+        ClosureWalker.Expander<String> stopping = new ClosureWalker.Expander<String>() {
+            public Collection<String> expand(String build) {
+                if (build.equals("b")) {
+                    ClosureWalker.Deadline.current().exceeded();
+                }
+                return DIAMOND.get(build);
+            }
+        };
+
+        BuildClosure<String> closure = new ClosureWalker<String>(stopping, 0, 0).walk("a");
+
+        assertEquals(ImmutableSet.of("a", "b", "c", "d"), closure.getBuilds());
+        assertTrue(closure.isTruncated());
+    }
+
+    @Test
+    public void outsideOfWalksThereIsNoDeadline() {
+        ClosureWalker.Deadline.current().exceeded();
+
+        assertFalse(ClosureWalker.Deadline.current().hasPassed());
+        assertFalse(ClosureWalker.Deadline.current().isExceeded());
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableSet;
+import hudson.model.AbstractBuild;
+import org.junit.Test;
+
+import static org.jenkinsci.plugins.all_changes.TestChanges.build;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ContributingBuildsTest {
+
+    @Test
+    public void changesOfAllContributingBuildsAreDeduplicated() throws Exception {
+        AbstractBuild build = build("app", 2, new TestChanges.Entry("a", "A", 1));
+        AbstractBuild upstream = build("lib", 5, new TestChanges.Entry("a", "A", 1), new TestChanges.Entry("b", "B", 2));
+        BuildClosure<AbstractBuild> closure = new BuildClosure<AbstractBuild>(ImmutableSet.of(build, upstream), 1, false);
+
+        ChangesPage.BuildChanges<AbstractBuild> changes = ContributingBuilds.changes(build, closure, AbstractBuild.class,
+                new ChangesBudget(0, 0, 0), System.nanoTime());
+
+        assertEquals(2, changes.getChanges().keySet().size());
+        assertEquals(3, changes.getChanges().size());
+        assertFalse(changes.isTruncated());
+    }
+
+    @Test
+    public void changesAreTruncatedOnceMaxChangesAreLoaded() throws Exception {
+        AbstractBuild build = build("app", 2, new TestChanges.Entry("a", "A", 1), new TestChanges.Entry("b", "B", 2));
+        AbstractBuild upstream = build("lib", 5, new TestChanges.Entry("c", "C", 3));
+        BuildClosure<AbstractBuild> closure = new BuildClosure<AbstractBuild>(ImmutableSet.of(build, upstream), 1, false);
+
+        ChangesPage.BuildChanges<AbstractBuild> changes = ContributingBuilds.changes(build, closure, AbstractBuild.class,
+                new ChangesBudget(0, 2, 0), System.nanoTime());
+
+        assertEquals(2, changes.getChanges().size());
+        assertTrue(changes.isTruncated());
+    }
+
+    @Test
+    public void changesOfTruncatedClosureAreTruncated() throws Exception {
+        AbstractBuild build = build("app", 2, new TestChanges.Entry("a", "A", 1));
+        BuildClosure<AbstractBuild> closure = new BuildClosure<AbstractBuild>(ImmutableSet.of(build), 1, true);
+
+        ChangesPage.BuildChanges<AbstractBuild> changes = ContributingBuilds.changes(build, closure, AbstractBuild.class,
+                new ChangesBudget(0, 0, 0), System.nanoTime());
+
+        assertEquals(1, changes.getChanges().size());
+        assertTrue(changes.isTruncated());
+    }
+}
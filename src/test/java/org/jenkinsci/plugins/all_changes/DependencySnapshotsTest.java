@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableMap;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.tasks.Fingerprinter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class DependencySnapshotsTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    @Before
+    public void clearCache() {
+        DependencySnapshots.clear();
+    }
+
+    /**
+     * Writes the artifact which is fingerprinted, the same content in two jobs makes one a dependency of the other.
+     */
+    public static class WriteArtifact extends TestBuilder {
+        String content;
+
+        @Override
+        public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                throws InterruptedException, IOException {
+            build.getWorkspace().child("artifact.txt").write(content, "UTF-8");
+            return true;
+        }
+    }
+
+    private static WriteArtifact fingerprintArtifact(FreeStyleProject project) {
+        WriteArtifact artifact = new WriteArtifact();
+        project.getBuildersList().add(artifact);
+        project.getPublishersList().add(new Fingerprinter("artifact.txt", false));
+        return artifact;
+    }
+
+    @Test
+    public void snapshotsAgreeWithTheDependencyChangesOfTheBuild() throws Exception {
+        FreeStyleProject upstream = j.createFreeStyleProject("upstream");
+        FreeStyleProject downstream = j.createFreeStyleProject("downstream");
+        WriteArtifact upstreamArtifact = fingerprintArtifact(upstream);
+        WriteArtifact downstreamArtifact = fingerprintArtifact(downstream);
+        for (String content : new String[] {"1", "2", "3"}) {
+            upstreamArtifact.content = content;
+            j.buildAndAssertSuccess(upstream);
+        }
+        downstreamArtifact.content = "1";
+        FreeStyleBuild previous = j.buildAndAssertSuccess(downstream);
+        downstreamArtifact.content = "3";
+        FreeStyleBuild build = j.buildAndAssertSuccess(downstream);
+
+        Map<String, Integer> snapshot = DependencySnapshots.of(build);
+
+        assertEquals(ImmutableMap.of("upstream", 1), DependencySnapshots.of(previous));
+        assertEquals(ImmutableMap.of("upstream", 3), snapshot);
+        AbstractBuild.DependencyChange change = build.getDependencyChanges(previous).get(upstream);
+        assertEquals(change.fromId, DependencySnapshots.of(previous).get("upstream").intValue());
+        assertEquals(change.toId, snapshot.get("upstream").intValue());
+        assertEquals(change.getBuilds(), new DependencyChangesAggregator().aggregateBuildsWithChanges(build));
+        assertEquals(snapshot, DependencySnapshots.of(build));
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import hudson.model.Cause;
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DownstreamIndexTest {
+
+    private final DownstreamIndex.Listener listener = new DownstreamIndex.Listener();
+
+    private Job upstreamJob;
+    private Run upstream;
+
+    @Before
+    public void clearIndex() {
+        DownstreamIndex.clear();
+        upstreamJob = job("up");
+        upstream = build(upstreamJob, 1, 35);
+        when(upstream.getDuration()).thenReturn(20L);
+    }
+
+    private static Job job(String name) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(name);
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Run build(Job job, int number, long time, Cause... causes) {
+        Run build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        when(build.getNumber()).thenReturn(number);
+        when(build.getTimeInMillis()).thenReturn(time);
+        when(build.getCauses()).thenReturn(ImmutableList.copyOf(causes));
+        return build;
+    }
+
+    private Cause.UpstreamCause causeFromUpstream() {
+        Cause.UpstreamCause cause = mock(Cause.UpstreamCause.class);
+        when(cause.getUpstreamProject()).thenReturn("up");
+        when(cause.getUpstreamBuild()).thenReturn(1);
+        when(cause.pointsTo(upstream)).thenReturn(true);
+        return cause;
+    }
+
+    /**
+     * Builds #1 to #6 of the job started at 10, 20, ..., 60, #4 was triggered by the upstream build.
+     */
+    private Job downstreamJob(Run[] builds) {
+        return downstreamJob("down", builds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Job downstreamJob(String name, Run[] builds) {
+        Job job = job(name);
+        for (int number = 1; number <= builds.length; number++) {
+            builds[number - 1] = number == 4
+                    ? build(job, number, number * 10, causeFromUpstream())
+                    : build(job, number, number * 10);
+            when(job.getNearestBuild(number)).thenReturn(builds[number - 1]);
+        }
+        for (int number = 1; number < builds.length; number++) {
+            when(builds[number - 1].getNextBuild()).thenReturn(builds[number]);
+        }
+        when(job.getLastBuild()).thenReturn(builds[builds.length - 1]);
+        return job;
+    }
+
+    @Test
+    public void startedBuildsAreIndexedForTheirUpstreamBuild() {
+        listener.onStarted(upstream, null);
+        assertTrue(DownstreamIndex.getDownstreamIds(upstream).isEmpty());
+
+        Run downstream = build(job("down"), 3, 40, causeFromUpstream());
+        listener.onStarted(downstream, null);
+
+        assertEquals(ImmutableSet.of("down#3"), DownstreamIndex.getDownstreamIds(upstream));
+    }
+
+    @Test
+    public void deletedBuildsAreRemovedFromTheIndex() {
+        listener.onStarted(upstream, null);
+        Run downstream = build(job("down"), 3, 40, causeFromUpstream());
+        listener.onStarted(downstream, null);
+
+        listener.onDeleted(downstream);
+
+        assertTrue(DownstreamIndex.getDownstreamIds(upstream).isEmpty());
+    }
+
+    @Test
+    public void upstreamBuildStartedBeforeIsNotIndexed() {
+        Run downstream = build(job("down"), 3, 40, causeFromUpstream());
+        listener.onStarted(downstream, null);
+
+        assertNull(DownstreamIndex.getDownstreamIds(upstream));
+    }
+
+    @Test
+    public void indexedUpstreamBuildIsNotScanned() {
+        Job job = downstreamJob(new Run[6]);
+        listener.onStarted(upstream, null);
+
+        List<Run> triggered = DownstreamIndex.getTriggeredBuilds(upstream, job, Run.class);
+
+        assertTrue(triggered.isEmpty());
+        verify(job, never()).getLastBuild();
+    }
+
+    @Test
+    public void scanOnlyLooksAtBuildsStartedWhileTheUpstreamBuildWasRunning() {
+        Run[] builds = new Run[6];
+        Job job = downstreamJob(builds);
+
+        assertEquals(ImmutableList.of("down#4"), DownstreamIndex.scan(upstream, job));
+
+        verify(builds[0], never()).getCauses();
+        verify(builds[2], never()).getCauses();
+        verify(builds[5], never()).getCauses();
+    }
+
+    @Test
+    public void scanOfJobWithoutNewerBuildsLoadsNoBuilds() {
+        Job job = job("down");
+        Run last = build(job, 2, 20);
+        when(job.getLastBuild()).thenReturn(last);
+
+        assertTrue(DownstreamIndex.scan(upstream, job).isEmpty());
+
+        verify(job, never()).getNearestBuild(1);
+    }
+
+    @Test
+    public void scanOfAllJobsIsIndexed() {
+        Job job = downstreamJob(new Run[6]);
+
+        Set<String> triggered = DownstreamIndex.getTriggeredIds(upstream, ImmutableList.of(upstreamJob, job));
+
+        assertEquals(ImmutableSet.of("down#4"), triggered);
+        assertEquals(ImmutableSet.of("down#4"), DownstreamIndex.getDownstreamIds(upstream));
+    }
+
+    @Test
+    public void scanOfAllJobsStopsAfterMaxScannedJobs() {
+        int maxScannedJobs = DownstreamIndex.MAX_SCANNED_JOBS;
+        DownstreamIndex.MAX_SCANNED_JOBS = 1;
+        try {
+            Job other = downstreamJob("other", new Run[6]);
+            Job job = downstreamJob(new Run[6]);
+
+            Set<String> triggered = DownstreamIndex.getTriggeredIds(upstream, ImmutableList.of(upstreamJob, other, job));
+
+            assertEquals(ImmutableSet.of("other#4"), triggered);
+            assertNull(DownstreamIndex.getDownstreamIds(upstream));
+        } finally {
+            DownstreamIndex.MAX_SCANNED_JOBS = maxScannedJobs;
+        }
+    }
+
+    @Test
+    public void scanOfAllJobsTruncatesTheWalkWhenItIsOutOfTime() {
+        final Job job = downstreamJob(new Run[6]);
+        ClosureWalker.Expander<Run> expander = new ClosureWalker.Expander<Run>() {
+            public Collection<Run> expand(Run build) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertTrue(DownstreamIndex.getTriggeredIds(build, ImmutableList.of(job)).isEmpty());
+                return ImmutableList.of();
+            }
+        };
+
+        BuildClosure<Run> closure = new ClosureWalker<Run>(expander, 0, 0, null, 10).walk(upstream);
+
+        assertTrue(closure.isTruncated());
+        assertNull(DownstreamIndex.getDownstreamIds(upstream));
+    }
+
+    @Test
+    public void rebuildIndexesBuildsStartedSinceTheGivenTime() {
+        Run[] builds = new Run[6];
+        Job job = downstreamJob(builds);
+        when(upstreamJob.getLastBuild()).thenReturn(upstream);
+        when(upstreamJob.getNearestBuild(1)).thenReturn(upstream);
+
+        DownstreamIndex.rebuild(ImmutableList.of(upstreamJob, job), 30);
+
+        assertEquals(ImmutableSet.of("down#4"), DownstreamIndex.getDownstreamIds(upstream));
+        assertTrue(DownstreamIndex.getDownstreamIds(builds[2]).isEmpty());
+        assertNull(DownstreamIndex.getDownstreamIds(builds[1]));
+    }
+
+    @Test
+    public void buildsStartedDuringRebuildAreIndexed() {
+        final Run[] builds = new Run[6];
+        Job job = downstreamJob(builds);
+        when(upstreamJob.getLastBuild()).thenReturn(upstream);
+        when(upstreamJob.getNearestBuild(1)).thenReturn(upstream);
+        final Run late = build(job("late"), 1, 70, causeFromUpstream());
+        when(job.getLastBuild()).thenAnswer(new Answer<Run>() {
+            public Run answer(InvocationOnMock invocation) {
+                listener.onStarted(late, null);
+                return builds[5];
+            }
+        });
+
+        DownstreamIndex.rebuild(ImmutableList.of(job, upstreamJob), 30);
+
+        assertEquals(ImmutableSet.of("down#4", "late#1"), DownstreamIndex.getDownstreamIds(upstream));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class InFlightTest {
+
+    @Test
+    public void concurrentCallersShareOneCalculation() throws Exception {
+        final AtomicInteger calculations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<Integer> calculation = new Callable<Integer>() {
+            public Integer call() throws Exception {
+                started.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                return calculations.incrementAndGet();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(new Callable<Integer>() {
+                public Integer call() {
+                    return InFlight.get("key", calculation);
+                }
+            });
+            started.await(10, TimeUnit.SECONDS);
+            Future<Integer> second = executor.submit(new Callable<Integer>() {
+                public Integer call() {
+                    return InFlight.get("key", calculation);
+                }
+            });
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(1, (int) first.get());
+            assertEquals(1, (int) second.get());
+            assertEquals(1, calculations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void finishedCalculationsAreNotReused() throws Exception {
+        final AtomicInteger calculations = new AtomicInteger();
+        Callable<Integer> calculation = new Callable<Integer>() {
+            public Integer call() {
+                return calculations.incrementAndGet();
+            }
+        };
+
+        assertEquals(1, (int) InFlight.get("key", calculation));
+        assertEquals(2, (int) InFlight.get("key", calculation));
+        assertEquals(3, (int) InFlight.get(null, calculation));
+    }
+}
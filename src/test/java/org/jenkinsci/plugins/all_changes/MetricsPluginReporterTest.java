@@ -0,0 +1,72 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import hudson.model.FreeStyleProject;
+import jenkins.metrics.api.Metrics;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class MetricsPluginReporterTest {
+
+    @Rule
+    public JenkinsRule j = new JenkinsRule();
+
+    private final int jobs = AggregationMetrics.JOBS;
+
+    @After
+    public void restoreJobs() {
+        AggregationMetrics.JOBS = jobs;
+    }
+
+    @Test
+    public void metricsAreReportedToTheRegistryOfTheMetricsPlugin() throws Exception {
+        AggregationMetrics.count("builds.expanded", 3);
+        AggregationMetrics.size("closure.size", 7);
+        AggregationMetrics.time("page", j.createFreeStyleProject("app"), System.nanoTime());
+
+        assertEquals(3, Metrics.metricRegistry().getCounters().get("all-changes.builds.expanded").getCount());
+        assertEquals(1, Metrics.metricRegistry().getHistograms().get("all-changes.closure.size").getCount());
+        assertEquals(1, Metrics.metricRegistry().getTimers().get("all-changes.page").getCount());
+        assertEquals(1, Metrics.metricRegistry().getTimers().get("all-changes.page.app").getCount());
+    }
+
+    @Test
+    public void timersOfDroppedJobsAreRemoved() throws Exception {
+        AggregationMetrics.JOBS = 1;
+        FreeStyleProject app = j.createFreeStyleProject("app");
+        FreeStyleProject lib = j.createFreeStyleProject("lib");
+
+        AggregationMetrics.time("page", app, System.nanoTime());
+        AggregationMetrics.time("page", lib, System.nanoTime());
+
+        assertFalse(Metrics.metricRegistry().getTimers().containsKey("all-changes.page.app"));
+        assertEquals(1, Metrics.metricRegistry().getTimers().get("all-changes.page.lib").getCount());
+    }
+}
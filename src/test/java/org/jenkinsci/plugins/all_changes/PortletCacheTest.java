@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableList;
+import hudson.model.Job;
+import hudson.model.Run;
+import jenkins.model.Jenkins;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PortletCacheTest {
+
+    private Job job;
+    private Run build;
+    private int collected;
+
+    /**
+     * Collects a page with one build of the job,
+     * with a change of the job and its upstream job and a change of the upstream job only.
+     */
+    private final Supplier<ChangesPage<Run>> collect = new Supplier<ChangesPage<Run>>() {
+        public ChangesPage<Run> get() {
+            collected++;
+            List<ChangeRecord> records = ImmutableList.of(
+                    ChangeRecord.builder().commitId("a").recordedIn("app#2").recordedIn("lib#5").build(),
+                    ChangeRecord.builder().commitId("b").recordedIn("lib#5").build());
+            return new ChangesPage<Run>(ImmutableList.of(ChangesPage.BuildChanges.ofRecords(build, records, false)), 1);
+        }
+    };
+
+    @Before
+    public void clearCache() {
+        PortletCache.clear();
+        job = mock(Job.class);
+        when(job.getFullName()).thenReturn("app");
+        build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        when(build.getNumber()).thenReturn(2);
+        when(job.getBuildByNumber(2)).thenReturn(build);
+    }
+
+    /**
+     * @return the builds the user can read, with the given jobs readable
+     */
+    private static ReadableBuilds readable(String... jobs) {
+        Jenkins jenkins = mock(Jenkins.class);
+        for (String name : jobs) {
+            Job readable = mock(Job.class);
+            when(jenkins.getItemByFullName(name, Job.class)).thenReturn(readable);
+        }
+        return new ReadableBuilds(jenkins);
+    }
+
+    @Test
+    public void everyViewerGetsItsOwnViewOfOnePage() {
+        ChangesPage<Run> all = PortletCache.get(job, 10, Run.class, collect, readable("app", "lib"));
+        ChangesPage<Run> appOnly = PortletCache.get(job, 10, Run.class, collect, readable("app"));
+
+        assertEquals(1, collected);
+        List<ChangeRecord> records = all.getBuilds().get(0).getRecords();
+        assertEquals(2, records.size());
+        assertEquals(ImmutableList.of("app#2", "lib#5"), records.get(0).getBuildIds());
+        records = appOnly.getBuilds().get(0).getRecords();
+        assertEquals(1, records.size());
+        assertEquals("a", records.get(0).getCommitId());
+        assertEquals(ImmutableList.of("app#2"), records.get(0).getBuildIds());
+        assertEquals(Integer.valueOf(1), appOnly.getNextCursor());
+    }
+
+    @Test
+    public void viewerWhoCannotReadTheJobGetsNoBuilds() {
+        PortletCache.get(job, 10, Run.class, collect, readable("app", "lib"));
+
+        ChangesPage<Run> page = PortletCache.get(job, 10, Run.class, collect, readable("lib"));
+
+        assertEquals(1, collected);
+        assertTrue(page.getBuilds().isEmpty());
+    }
+
+    @Test
+    public void pageIsCollectedAgainWhenABuildCompletes() {
+        PortletCache.get(job, 10, Run.class, collect, readable("app"));
+        Run completed = mock(Run.class);
+        when(completed.getNumber()).thenReturn(3);
+        when(job.getLastCompletedBuild()).thenReturn(completed);
+
+        PortletCache.get(job, 10, Run.class, collect, readable("app"));
+
+        assertEquals(2, collected);
+    }
+
+    @Test
+    public void pageIsCollectedAgainWhenOneOfItsBuildsIsGone() {
+        PortletCache.get(job, 10, Run.class, collect, readable("app"));
+        when(job.getBuildByNumber(2)).thenReturn(null);
+
+        PortletCache.get(job, 10, Run.class, collect, readable("app"));
+
+        assertEquals(2, collected);
+    }
+}
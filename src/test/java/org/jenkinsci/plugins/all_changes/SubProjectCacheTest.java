@@ -0,0 +1,71 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import hudson.model.AbstractProject;
+import hudson.model.Item;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SubProjectCacheTest {
+
+    private AbstractProject app;
+    private AbstractProject lib;
+
+    @Before
+    public void setUp() {
+        app = project("app");
+        lib = project("lib");
+        SubProjectCache.put(app, ImmutableList.of("app-tests"));
+        SubProjectCache.put(lib, ImmutableList.of("lib-tests"));
+    }
+
+    private static AbstractProject project(String fullName) {
+        AbstractProject project = mock(AbstractProject.class);
+        when(project.getFullName()).thenReturn(fullName);
+        return project;
+    }
+
+    @Test
+    public void savingTheConfigurationForgetsTheSubProjectsOfTheProject() {
+        new SubProjectCache.ConfigurationListener().onChange(app, null);
+
+        assertNull(SubProjectCache.get(app));
+        assertEquals(ImmutableList.of("lib-tests"), SubProjectCache.get(lib));
+    }
+
+    @Test
+    public void renamingAJobForgetsAllSubProjects() {
+        new SubProjectCache.ProjectListener().onLocationChanged(mock(Item.class), "app-tests", "app-unit-tests");
+
+        assertNull(SubProjectCache.get(app));
+        assertNull(SubProjectCache.get(lib));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.collect.ImmutableList;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.Run;
+import hudson.model.User;
+import hudson.scm.ChangeLogSet;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Changes and builds for tests which run without Jenkins.
+ */
+final class TestChanges {
+
+    private TestChanges() {
+    }
+
+    /**
+     * A change whose annotated message is its message, so no annotators are needed.
+     */
+    static class Entry extends ChangeLogSet.Entry {
+        private final String commitId;
+        private final String msg;
+        private final long timestamp;
+
+        Entry(String commitId, String msg, long timestamp) {
+            this.commitId = commitId;
+            this.msg = msg;
+            this.timestamp = timestamp;
+        }
+
+        void setChangeSet(ChangeLogSet<?> changeSet) {
+            setParent(changeSet);
+        }
+
+        @Override
+        public String getCommitId() {
+            return commitId;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String getMsg() {
+            return msg;
+        }
+
+        @Override
+        public String getMsgAnnotated() {
+            return msg;
+        }
+
+        @Override
+        public User getAuthor() {
+            return null;
+        }
+
+        @Override
+        public Collection<String> getAffectedPaths() {
+            return Collections.emptyList();
+        }
+    }
+
+    static class ChangeSet extends ChangeLogSet<ChangeLogSet.Entry> {
+        private final List<ChangeLogSet.Entry> entries;
+
+        ChangeSet(Run<?, ?> run, TestChanges.Entry... entries) {
+            super(run, null);
+            this.entries = ImmutableList.<ChangeLogSet.Entry>copyOf(entries);
+            for (TestChanges.Entry entry : entries) {
+                entry.setChangeSet(this);
+            }
+        }
+
+        @Override
+        public boolean isEmptySet() {
+            return entries.isEmpty();
+        }
+
+        public Iterator<ChangeLogSet.Entry> iterator() {
+            return entries.iterator();
+        }
+    }
+
+    static Entry entry(String commitId) {
+        return new Entry(commitId, "Fix " + commitId, 42);
+    }
+
+    /**
+     * @return a mocked build of the job with the given changes
+     */
+    static AbstractBuild build(String job, int number, Entry... entries) {
+        AbstractProject project = mock(AbstractProject.class);
+        when(project.getFullName()).thenReturn(job);
+        AbstractBuild build = mock(AbstractBuild.class);
+        when(build.getParent()).thenReturn(project);
+        when(build.getProject()).thenReturn(project);
+        when(build.getNumber()).thenReturn(number);
+        when(build.getChangeSet()).thenReturn(new ChangeSet(build, entries));
+        return build;
+    }
+}
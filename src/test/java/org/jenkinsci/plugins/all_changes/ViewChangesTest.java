@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026, All Changes plugin contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jenkinsci.plugins.all_changes;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import hudson.model.Job;
+import hudson.model.Run;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ViewChangesTest {
+
+    private final Map<Run<?, ?>, ChangesPage.BuildChanges<?>> changes = Maps.newHashMap();
+
+    private final Function<Run<?, ?>, ChangesPage.BuildChanges<?>> changesOf =
+            new Function<Run<?, ?>, ChangesPage.BuildChanges<?>>() {
+                public ChangesPage.BuildChanges<?> apply(Run<?, ?> build) {
+                    return changes.get(build);
+                }
+            };
+
+    private Job a = job("a");
+    private Job b = job("b");
+    private Run a1 = build(a, 10, null, "w");
+    private Run a2 = build(a, 40, a1, "x");
+    private Run b1 = build(b, 20, null, "z");
+    private Run b2 = build(b, 30, b1, "x", "y");
+
+    public ViewChangesTest() {
+        when(a.getLastBuild()).thenReturn(a2);
+        when(b.getLastBuild()).thenReturn(b2);
+    }
+
+    private static Job job(String name) {
+        Job job = mock(Job.class);
+        when(job.getFullName()).thenReturn(name);
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Run build(Job job, long time, Run previous, String... commitIds) {
+        Run build = mock(Run.class);
+        when(build.getParent()).thenReturn(job);
+        when(build.getTimeInMillis()).thenReturn(time);
+        when(build.getPreviousBuild()).thenReturn(previous);
+        ImmutableList.Builder<ChangeRecord> records = ImmutableList.builder();
+        for (String commitId : commitIds) {
+            records.add(ChangeRecord.builder().commitId(commitId).msg(commitId).timestamp(1).build());
+        }
+        changes.put(build, ChangesPage.BuildChanges.ofRecords(build, records.build(), false));
+        return build;
+    }
+
+    private ViewChanges of(int limit, int maxBuilds) {
+        return ViewChanges.of(ImmutableList.<Job<?, ?>>of(a, b), limit, maxBuilds, changesOf);
+    }
+
+    private static String commitIds(ViewChanges.BuildRecords buildRecords) {
+        StringBuilder ids = new StringBuilder();
+        for (ChangeRecord record : buildRecords.getRecords()) {
+            ids.append(record.getCommitId());
+        }
+        return ids.toString();
+    }
+
+    @Test
+    public void buildsOfAllJobsAreMergedNewestFirst() {
+        ViewChanges view = of(100, 0);
+
+        List<ViewChanges.BuildRecords> builds = view.getBuilds();
+        assertEquals(4, builds.size());
+        assertSame(a2, builds.get(0).getBuild());
+        assertSame(b2, builds.get(1).getBuild());
+        assertSame(b1, builds.get(2).getBuild());
+        assertSame(a1, builds.get(3).getBuild());
+        assertFalse(view.isMore());
+    }
+
+    @Test
+    public void changeIsOnlyShownForTheNewestBuild() {
+        List<ViewChanges.BuildRecords> builds = of(100, 0).getBuilds();
+
+        assertEquals("x", commitIds(builds.get(0)));
+        assertEquals("y", commitIds(builds.get(1)));
+    }
+
+    @Test
+    public void feedStopsAtTheLimit() {
+        ViewChanges view = of(2, 0);
+
+        assertEquals(2, view.getBuilds().size());
+        assertEquals("y", commitIds(view.getBuilds().get(1)));
+        assertTrue(view.isMore());
+    }
+
+    @Test
+    public void feedStopsAtMaxBuilds() {
+        ViewChanges view = of(100, 3);
+
+        assertEquals(3, view.getBuilds().size());
+        assertSame(b1, view.getBuilds().get(2).getBuild());
+        assertTrue(view.isMore());
+    }
+
+    @Test
+    public void buildsWithoutChangesCountTowardsMaxBuilds() {
+        changes.put(a2, ChangesPage.BuildChanges.ofRecords(a2, ImmutableList.<ChangeRecord>of(), false));
+
+        ViewChanges view = of(100, 1);
+
+        assertTrue(view.getBuilds().isEmpty());
+        assertTrue(view.isMore());
+    }
+}